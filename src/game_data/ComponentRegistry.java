@@ -0,0 +1,33 @@
+package game_data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out a small, dense id for every State or Characteristic class, so a
+ * Sprite can keep its components in an array indexed by that id instead of
+ * scanning its sets with instanceof.
+ */
+public final class ComponentRegistry {
+
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> aType) {
+			return NEXT_ID.getAndIncrement();
+		}
+	};
+
+	private ComponentRegistry() {
+	}
+
+	public static int getId(Class<?> aType) {
+		return IDS.get(aType);
+	}
+
+	/**
+	 * @return number of ids handed out so far
+	 */
+	public static int size() {
+		return NEXT_ID.get();
+	}
+}
@@ -1,6 +1,6 @@
 package game_data;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import game_data.characteristics.Characteristic;
@@ -31,25 +31,25 @@ public class Controllable {
 //	private Map<KeyCode, Action> defaultKeyPressedMap;
 	public Controllable() {
 		isControllable = false;
-		myKeyPressedMap = new HashMap<>();
-		myKeyReleasedMap = new HashMap<>();
-		myKeysReleased = new HashSet<>();
-		myKeysPressed = new HashSet<>();
+		myKeyPressedMap = new LinkedHashMap<>();
+		myKeyReleasedMap = new LinkedHashMap<>();
+		myKeysReleased = new LinkedHashSet<>();
+		myKeysPressed = new LinkedHashSet<>();
 //		defaultKeyPressedMap = new HashMap<KeyCode,Action>();
 	}
 	public Controllable(Sprite aSprite, Map<KeyCode, Action> myKeyPressedMap) {
 		this.mySprite = aSprite;
 		isControllable = true;
 //		defaultKeyPressedMap = new HashMap<KeyCode,Action>();
-		myKeyReleasedMap = new HashMap<>();
-		myKeysReleased = new HashSet<>();
-		myKeysPressed = new HashSet<>();
+		myKeyReleasedMap = new LinkedHashMap<>();
+		myKeysReleased = new LinkedHashSet<>();
+		myKeysPressed = new LinkedHashSet<>();
 		this.myKeyPressedMap = myKeyPressedMap;
 //		defaultKeyPressedMap = null;
 	}
 	
 	private Map<KeyCode, Action> makeCopy(Map<KeyCode, Action> aKeyPressedMap) {
-		Map<KeyCode, Action> ans = new HashMap<KeyCode, Action>();
+		Map<KeyCode, Action> ans = new LinkedHashMap<KeyCode, Action>();
 		for(KeyCode k : aKeyPressedMap.keySet()) {
 			ans.put(k, aKeyPressedMap.get(k));
 		}
@@ -68,7 +68,7 @@ public class Controllable {
 		return isControllable;
 	}
 	private Map<KeyCode, Action> copyKeyPressedMap(Map<KeyCode, Action> aOriginalMap, Sprite aSprite){
-		Map<KeyCode, Action> map = new HashMap<>();
+		Map<KeyCode, Action> map = new LinkedHashMap<>();
 		
 		aOriginalMap.entrySet().forEach( e -> {
 			map.put(e.getKey(), e.getValue().copyWithNewSprite(aSprite));
@@ -3,7 +3,7 @@ package game_data;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -27,7 +27,7 @@ public class Game extends GameObject {
 	 */
 
 	List<Level> myLevels;
-	Set<Sprite> mySpritePresets = new HashSet<>();
+	Set<Sprite> mySpritePresets = new LinkedHashSet<>();
 	Level myCurrentLevel;
 	String myDescription;
 	String myIconPath;
@@ -35,6 +35,7 @@ public class Game extends GameObject {
 	String myAudioFilePath;
 	boolean hasWon;
 	boolean hasLost;
+	boolean simulatesWholeLevel;
 
 	public Game(String aName) {
 		setName(aName);
@@ -72,11 +73,8 @@ public class Game extends GameObject {
 	 * @throws IOException 
 	 */
 	public void saveGameAs(String filePath, String fileName) throws IOException {
-		java.io.FileWriter fw;
 		try {
-			fw = new java.io.FileWriter(filePath + fileName + ".xml");
-			fw.write(((new XMLTranslator()).serialize(this)));
-			fw.close();
+			new XMLTranslator().writeToFile(this, new java.io.File(filePath + fileName + ".xml"));
 		} catch (IOException e) {
 			System.out.println(e.getMessage());
 			throw new IOException();
@@ -175,6 +173,18 @@ public class Game extends GameObject {
 		this.myScrollType = aScrollType;
 	}
 
+	/**
+	 * By default only the Sprites around the visible part of a Level are
+	 * simulated. Games saved before this setting existed load with it off.
+	 */
+	public boolean simulatesWholeLevel() {
+		return simulatesWholeLevel;
+	}
+
+	public void setSimulatesWholeLevel(boolean aSimulatesWholeLevel) {
+		this.simulatesWholeLevel = aSimulatesWholeLevel;
+	}
+
 	public String getAudioFilePath() {
 		return this.myAudioFilePath;
 	}
@@ -3,8 +3,13 @@
  */
 package game_data;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import com.thoughtworks.xstream.annotations.XStreamOmitField;
 
@@ -17,8 +22,10 @@ import javafx.beans.Observable;
  */
 public abstract class GameObject implements Observable{
 	
+	private static final ThreadLocal<NotificationBatch> BATCHES = ThreadLocal.withInitial(NotificationBatch::new);
+	
 	@XStreamOmitField
-	private Collection<InvalidationListener> invalidationListeners = new HashSet<>();
+	private Collection<InvalidationListener> invalidationListeners;
 	
 	private String name;
 
@@ -38,16 +45,33 @@ public abstract class GameObject implements Observable{
 	 */
 	@Override
 	public void removeListener(InvalidationListener listener) {
-		if (this.invalidationListeners == null){
-			this.invalidationListeners = new HashSet<>();
+		if (this.invalidationListeners != null){
+			this.invalidationListeners.remove(listener);
 		}
-		this.invalidationListeners.remove(listener);
 	}
 	
+	/**
+	 * Inside a batch opened on this thread the listeners are only invalidated
+	 * once, when the outermost batch is closed, and not at all inside a batch
+	 * that does not deliver.
+	 */
 	protected void notifyListeners(){
-		if (this.invalidationListeners == null){
-			this.invalidationListeners = new HashSet<>();
+		if (this.invalidationListeners == null || this.invalidationListeners.isEmpty()){
+			return;
+		}
+		NotificationBatch batch = BATCHES.get();
+		if (batch.isMuted()){
+			return;
 		}
+		if (batch.isOpen()){
+			batch.add(this);
+		}
+		else {
+			invalidateListeners();
+		}
+	}
+	
+	private void invalidateListeners(){
 		this.invalidationListeners.forEach((listener) -> {
 			if (listener!=null){
 				listener.invalidated(this);
@@ -55,6 +79,28 @@ public abstract class GameObject implements Observable{
 		});
 	}
 	
+	/**
+	 * Opens a batch on the current thread, to be closed in a finally block or
+	 * with try-with-resources. Batches can be nested.
+	 * 
+	 * @return the batch, which delivers one invalidation per changed object
+	 *         when the outermost batch is closed
+	 */
+	public static NotificationBatch batchNotifications(){
+		return batchNotifications(true);
+	}
+	
+	/**
+	 * @param aDeliver - false to not invalidate any listener for the changes
+	 *            made on this thread until the outermost batch is closed,
+	 *            e.g. while a game is played without a display
+	 */
+	public static NotificationBatch batchNotifications(boolean aDeliver){
+		NotificationBatch batch = BATCHES.get();
+		batch.open(aDeliver);
+		return batch;
+	}
+	
 	public String getName(){
 		return this.name;
 	}
@@ -63,5 +109,47 @@ public abstract class GameObject implements Observable{
 		this.name = aName;
 		notifyListeners();
 	}
+	
+	/**
+	 * Collects the GameObjects changed on one thread while it is open.
+	 */
+	public static class NotificationBatch implements AutoCloseable {
+		private int depth;
+		private boolean isMuted;
+		private List<GameObject> changedObjects = new ArrayList<>();
+		private Set<GameObject> changedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		
+		private void open(boolean aDeliver){
+			if (depth++ == 0){
+				isMuted = !aDeliver;
+			}
+		}
+		
+		private boolean isOpen(){
+			return depth > 0;
+		}
+		
+		private boolean isMuted(){
+			return isMuted;
+		}
+		
+		private void add(GameObject aObject){
+			if (changedSet.add(aObject)){
+				changedObjects.add(aObject);
+			}
+		}
+		
+		@Override
+		public void close(){
+			if (--depth > 0){
+				return;
+			}
+			isMuted = false;
+			List<GameObject> changed = changedObjects;
+			changedObjects = new ArrayList<>();
+			changedSet.clear();
+			changed.forEach(GameObject::invalidateListeners);
+		}
+	}
 
 }
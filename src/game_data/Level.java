@@ -1,14 +1,24 @@
 package game_data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
+import com.thoughtworks.xstream.annotations.XStreamOmitField;
+
 import game_data.sprites.Player;
 import game_data.states.LevelWon;
+import game_engine.CharacteristicRegistry;
+import game_engine.KinematicsStore;
+import game_engine.ProjectilePool;
+import game_engine.SpatialGrid;
+import game_engine.TimingWheel;
 import game_engine.actions.Action;
 import javafx.scene.input.KeyCode;
 
@@ -26,6 +36,25 @@ public class Level extends GameObject {
 	private Player myMainPlayer;
 	Set<Sprite> mySprites;
 	private List<Sprite> myControllableSpriteList = new ArrayList<Sprite>();
+	@XStreamOmitField
+	private SpatialGrid myBroadphase;
+	@XStreamOmitField
+	private KinematicsStore myKinematics;
+	@XStreamOmitField
+	private CharacteristicRegistry myCharacteristicRegistry;
+	private long myRandomSeed;
+	@XStreamOmitField
+	private long mySpritesAdded;
+	@XStreamOmitField
+	private int mySpriteModCount;
+	@XStreamOmitField
+	private volatile List<Sprite> mySpriteSnapshot;
+	@XStreamOmitField
+	private ProjectilePool myProjectilePool;
+	@XStreamOmitField
+	private TimingWheel myTimingWheel;
+	@XStreamOmitField
+	private Random myRandom;
 
 	Map<KeyCode, KeyCommand> myKeyCommands;
 	
@@ -36,8 +65,8 @@ public class Level extends GameObject {
 		this.width = width;
 		this.height = height;
 		this.backgroundImageFilePath = backgroundImageFilePath;
-		mySprites = new HashSet<Sprite>();
-		myKeyCommands = new HashMap<KeyCode, KeyCommand>();
+		mySprites = new LinkedHashSet<Sprite>();
+		myKeyCommands = new LinkedHashMap<KeyCode, KeyCommand>();
 		myControllableSpriteList = new ArrayList<Sprite>();
 		setMyControllableSpriteList();
 		for(Sprite s: getMySpriteList()){
@@ -84,7 +113,10 @@ public class Level extends GameObject {
 	}
 
 	public void addNewSprite(Sprite aSprite) {
-		mySprites.add(aSprite);
+		if (mySprites.add(aSprite)) {
+			mySpritesAdded++;
+			spritesChanged();
+		}
 		if(aSprite instanceof LevelSetter)
 			((LevelSetter) aSprite).setLevel(this);
 		if(aSprite.getControllable() != null && aSprite.getControllable().isControllable()) {
@@ -93,9 +125,19 @@ public class Level extends GameObject {
 		if(aSprite instanceof Player){
 			setMainPlayer((Player)aSprite);
 		}
+		if (myCharacteristicRegistry != null) {
+			myCharacteristicRegistry.add(aSprite);
+		}
 		this.notifyListeners();
 	}
 
+	/**
+	 * @return number of Sprites added since this Level was created or loaded
+	 */
+	public long getSpritesAdded() {
+		return mySpritesAdded;
+	}
+
 	public void setKeyCommand(KeyCode aKeyCode, KeyCommand aKeyCommand) {
 		myKeyCommands.put(aKeyCode, aKeyCommand);
 		this.notifyListeners();
@@ -107,18 +149,140 @@ public class Level extends GameObject {
 	}
 
 	public void removeSprite(Sprite aSprite) {
-		if (mySprites.contains(aSprite)) {
-			mySprites.remove(aSprite);
+		if (mySprites.remove(aSprite)) {
+			spritesChanged();
 			if (aSprite.getControllable().isControllable()) {
 				myControllableSpriteList.remove(aSprite);
 			}
+			if (myBroadphase != null) {
+				myBroadphase.remove(aSprite);
+			}
+			if (myKinematics != null) {
+				myKinematics.detach(aSprite);
+			}
+			if (myCharacteristicRegistry != null) {
+				myCharacteristicRegistry.remove(aSprite);
+			}
 			this.notifyListeners();
 		}
 	}
 
+	/**
+	 * The list is a snapshot: it is not changed when Sprites are added or
+	 * removed later, so it can be iterated while the Level changes. It is
+	 * shared by every caller until the next change and cannot be modified.
+	 * 
+	 * @return the Sprites of this Level in the order they were added
+	 */
 	public List<Sprite> getMySpriteList() {
+		List<Sprite> snapshot = mySpriteSnapshot;
+		if (snapshot == null) {
+			snapshot = Collections.unmodifiableList(Arrays.asList(mySprites.toArray(new Sprite[mySprites.size()])));
+			mySpriteSnapshot = snapshot;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return a number that changes whenever a Sprite is added to or removed
+	 *         from this Level, so callers can tell whether a snapshot they
+	 *         hold is still current
+	 */
+	public int getSpriteModCount() {
+		return mySpriteModCount;
+	}
+
+	private void spritesChanged() {
+		mySpriteModCount++;
+		mySpriteSnapshot = null;
+	}
+
+	/**
+	 * The broadphase is only built once the engine asks for it, so authoring a
+	 * Level never pays for it and it is never serialized.
+	 * 
+	 * @return the spatial index over this Level's Sprites
+	 */
+	public SpatialGrid getBroadphase() {
+		if (myBroadphase == null) {
+			myBroadphase = new SpatialGrid();
+			myBroadphase.update(mySprites);
+		}
+		return myBroadphase;
+	}
 
-		return new ArrayList<>(mySprites);
+	/**
+	 * Like the broadphase, the kinematics store is only built once the engine
+	 * asks for it. From then on the kinematic state of this Level's Sprites
+	 * lives in the store.
+	 * 
+	 * @return the store holding the locations and velocities of this Level's
+	 *         Sprites
+	 */
+	public KinematicsStore getKinematics() {
+		if (myKinematics == null) {
+			myKinematics = new KinematicsStore();
+			myKinematics.update(mySprites);
+		}
+		return myKinematics;
+	}
+
+	/**
+	 * Built on first use like the broadphase; afterwards Sprites added to or
+	 * removed from this Level, and Characteristics added to or removed from
+	 * its Sprites, are kept registered.
+	 * 
+	 * @return the registry of this Level's Characteristics by class
+	 */
+	public CharacteristicRegistry getCharacteristicRegistry() {
+		if (myCharacteristicRegistry == null) {
+			myCharacteristicRegistry = new CharacteristicRegistry();
+			myCharacteristicRegistry.update(mySprites);
+		}
+		return myCharacteristicRegistry;
+	}
+
+	/**
+	 * @return the pool the projectiles launched in this Level are taken from
+	 */
+	public ProjectilePool getProjectilePool() {
+		if (myProjectilePool == null) {
+			myProjectilePool = new ProjectilePool();
+		}
+		return myProjectilePool;
+	}
+
+	/**
+	 * @return the timers of this Level, which move on one tick every update
+	 */
+	public TimingWheel getTimingWheel() {
+		if (myTimingWheel == null) {
+			myTimingWheel = new TimingWheel();
+		}
+		return myTimingWheel;
+	}
+
+	public long getRandomSeed() {
+		return myRandomSeed;
+	}
+
+	public void setRandomSeed(long aSeed) {
+		myRandomSeed = aSeed;
+		myRandom = null;
+	}
+
+	/**
+	 * Every random decision the engine makes for this Level comes from here,
+	 * so playing it again from the same seed with the same input gives the
+	 * same game.
+	 * 
+	 * @return random numbers seeded with this Level's random seed
+	 */
+	public Random getRandom() {
+		if (myRandom == null) {
+			myRandom = new Random(myRandomSeed);
+		}
+		return myRandom;
 	}
 
 	public void setMyControllableSpriteList() {
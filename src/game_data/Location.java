@@ -1,5 +1,7 @@
 package game_data;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Holds X and Y location of a Sprite
  * 
@@ -7,12 +9,23 @@ package game_data;
  */
 public class Location {
 
+	private static final LongAdder CONSTRUCTED = new LongAdder();
+
 	private double myXLocation;
 	private double myYLocation;
 	
 	public Location(double aXLocation, double aYLocation){
+		CONSTRUCTED.increment();
 		setLocation(aXLocation, aYLocation);
 	}
+
+	/**
+	 * @return how many Locations have been constructed so far, so tests can
+	 *         check that stepping a game does not construct any
+	 */
+	static long getConstructedCount(){
+		return CONSTRUCTED.sum();
+	}
 	
 	
 	public double getXLocation(){
@@ -26,6 +39,9 @@ public class Location {
 		this.myXLocation = myXLocation;
 		this.myYLocation = myYLocation;
 	}
+	public void translate(double aXDistance, double aYDistance){
+		setLocation(getXLocation() + aXDistance, getYLocation() + aYDistance);
+	}
 	@Override
 	public boolean equals(Object object){
 		if (object instanceof Location) {
@@ -37,14 +53,14 @@ public class Location {
 	}
 	
 	public double calculateDistance(Location location){
-		double xDiff = myXLocation - location.getXLocation();
-		double yDiff = myYLocation - location.getYLocation();
+		double xDiff = getXLocation() - location.getXLocation();
+		double yDiff = getYLocation() - location.getYLocation();
 		return Math.sqrt((xDiff * xDiff) + (yDiff * yDiff));
 	}
 
 	@Override
 	public String toString(){
-		return myXLocation + " x "  + myYLocation;
+		return getXLocation() + " x "  + getYLocation();
 	}
 	
 }
@@ -1,13 +1,18 @@
 package game_data;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
+import com.thoughtworks.xstream.annotations.XStreamOmitField;
+
 import game_data.characteristics.Characteristic;
+import game_data.characteristics.TemporalPowerUpper;
 import game_data.states.State;
+import game_engine.CharacteristicRegistry;
 import game_engine.GameResources;
+import game_engine.KinematicsStore;
 import game_engine.properties.RandomMoveConjointHandler;
 import game_engine.properties.RandomMoveDisjointHandler;
 import game_engine.properties.RandomMoveHandler;
@@ -37,8 +42,22 @@ public abstract class Sprite extends GameObject {
 	private Controllable myControllable;
 	private String id = "";
 	private RandomMoveHandler myRandomMoveHandler;
-	private Map<Characteristic, Double> powerUps;
+	private Set<TemporalPowerUpper> powerUps;
 	private Set<State> myStates;
+	@XStreamOmitField
+	private KinematicsStore myKinematics;
+	@XStreamOmitField
+	private int myKinematicsSlot;
+	@XStreamOmitField
+	private Location myKinematicsLocation;
+	@XStreamOmitField
+	private CharacteristicRegistry myCharacteristicRegistry;
+	@XStreamOmitField
+	private volatile Object[] myComponentIndex;
+	@XStreamOmitField
+	private int myIndexedStates;
+	@XStreamOmitField
+	private int myIndexedCharacteristics;
 	
 	public Sprite() {
 		resetTerminalVelocities();
@@ -47,8 +66,8 @@ public abstract class Sprite extends GameObject {
 		myXAcceleration = 0;
 		myYAcceleration = 0;
 		myCollisionHandler = new CollisionHandler();
-		myCharacteristics = new HashSet<Characteristic>();
-		myStates = new HashSet<State>();
+		myCharacteristics = new LinkedHashSet<Characteristic>();
+		myStates = new LinkedHashSet<State>();
 		myControllable = new Controllable();
 		myRandomMoveHandler = new RandomMoveDisjointHandler(Orientation.NULL);
 	}
@@ -66,8 +85,8 @@ public abstract class Sprite extends GameObject {
 		myXAcceleration = 0;
 		myYAcceleration = 0;
 		myCollisionHandler = new CollisionHandler();
-		myCharacteristics = new HashSet<Characteristic>();
-		myStates = new HashSet<State>();
+		myCharacteristics = new LinkedHashSet<Characteristic>();
+		myStates = new LinkedHashSet<State>();
 		myControllable=new Controllable();
 		myRandomMoveHandler = new RandomMoveDisjointHandler(Orientation.NULL);
 		myControllable = new Controllable();
@@ -75,9 +94,40 @@ public abstract class Sprite extends GameObject {
 
 	// for copying sprites
 	public Sprite(Sprite aSprite) {
+		copyFrom(aSprite);
+	}
+
+	/**
+	 * should return a clone using the new Sprite(this) constructor
+	 */
+	public abstract Sprite clone();
+
+	/**
+	 * Puts this Sprite back into the state a copy of aPreset starts in, so a
+	 * Sprite that was removed from its Level can be reused instead of cloning
+	 * aPreset again. Its Characteristics and States are replaced by copies of
+	 * aPreset's, since they keep no way of being reset themselves.
+	 */
+	public void resetTo(Sprite aPreset) {
+		if (myKinematics != null) {
+			myKinematics.detach(this);
+		}
+		copyFrom(aPreset);
+		id = "";
+		powerUps = null;
+		myComponentIndex = null;
+		notifyListeners();
+	}
+
+	/**
+	 * Sets every field a copy of aSprite starts with. The copy constructor and
+	 * {@link #resetTo(Sprite)} both go through here, so a reused Sprite cannot
+	 * differ from a fresh copy.
+	 */
+	private void copyFrom(Sprite aSprite) {
 		resetTerminalVelocities();
 		preset = aSprite;
-		myLocation = new Location(aSprite.getLocation().getXLocation(), aSprite.getLocation().getYLocation());
+		setOwnLocation(aSprite.getLocation().getXLocation(), aSprite.getLocation().getYLocation());
 		myWidth = aSprite.getWidth();
 		myHeight = aSprite.getHeight();
 		setName(aSprite.getName());
@@ -94,15 +144,10 @@ public abstract class Sprite extends GameObject {
 		myControllable=aSprite.getControllable();
 	}
 
-	/**
-	 * should return a clone using the new Sprite(this) constructor
-	 */
-	public abstract Sprite clone();
-
 	private Set<Characteristic> copyCharacteristics(Set<Characteristic> aCharacteristicSet) {
 		if (aCharacteristicSet == null)
 			return null;
-		Set<Characteristic> characteristicCopies = new HashSet<Characteristic>();
+		Set<Characteristic> characteristicCopies = new LinkedHashSet<Characteristic>();
 		for (Characteristic c : aCharacteristicSet) {
 			characteristicCopies.add(c.copy(this));
 		}
@@ -112,7 +157,7 @@ public abstract class Sprite extends GameObject {
 	private Set<State> copyStates(Set<State> aStateSet) {
 		if (aStateSet == null)
 			return null;
-		Set<State> stateCopies = new HashSet<State>();
+		Set<State> stateCopies = new LinkedHashSet<State>();
 		for (State c : aStateSet) {
 			stateCopies.add(c.copy());
 		}
@@ -133,13 +178,21 @@ public abstract class Sprite extends GameObject {
 	}
 
 	public void addCharacteristic(Characteristic aCharacteristic) {
-		myCharacteristics.add(aCharacteristic);
+		if (myCharacteristics.add(aCharacteristic) && myCharacteristicRegistry != null)
+			myCharacteristicRegistry.add(this, aCharacteristic);
+		if (myKinematics != null)
+			myKinematics.wake(this);
+		myComponentIndex = null;
 		notifyListeners();
 	}
 
 	public void removeCharacteristic(Characteristic aCharacteristic) {
-		if (myCharacteristics.contains(aCharacteristic))
+		if (myCharacteristics.contains(aCharacteristic)) {
 			myCharacteristics.remove(aCharacteristic);
+			if (myCharacteristicRegistry != null)
+				myCharacteristicRegistry.remove(this, aCharacteristic);
+		}
+		myComponentIndex = null;
 	}
 
 	public Set<State> getStates() {
@@ -148,41 +201,147 @@ public abstract class Sprite extends GameObject {
 
 	public void addState(State aState) {
 		myStates.add(aState);
+		myComponentIndex = null;
+		if (myKinematics != null)
+			myKinematics.refreshPhysics(this);
 		notifyListeners();
 	}
 
 	public void removeState(State aState) {
 		if (myStates.contains(aState))
 			myStates.remove(aState);
+		myComponentIndex = null;
+		if (myKinematics != null)
+			myKinematics.refreshPhysics(this);
+	}
+
+	/**
+	 * @param aType - class of the wanted State, subclasses included
+	 * @return the Sprite's State of that class, or null if it has none
+	 */
+	public <T extends State> T getState(Class<T> aType) {
+		return aType.cast(findComponent(aType));
+	}
+
+	/**
+	 * @param aType - class of the wanted Characteristic, subclasses included
+	 * @return the Sprite's Characteristic of that class, or null if it has none
+	 */
+	public <T extends Characteristic> T getCharacteristic(Class<T> aType) {
+		return aType.cast(findComponent(aType));
+	}
+
+	public boolean hasCharacteristic(Class<? extends Characteristic> aType) {
+		return findComponent(aType) != null;
+	}
+
+	private Object findComponent(Class<?> aType) {
+		int id = ComponentRegistry.getId(aType);
+		Object[] index = getComponentIndex();
+		return id < index.length ? index[id] : null;
+	}
+
+	/**
+	 * The index is rebuilt after addState, removeState, addCharacteristic or
+	 * removeCharacteristic, and when the sets changed size behind its back
+	 * (the authoring environment edits them directly).
+	 */
+	private Object[] getComponentIndex() {
+		Object[] index = myComponentIndex;
+		if (index == null || myIndexedStates != size(myStates)
+				|| myIndexedCharacteristics != size(myCharacteristics)) {
+			myIndexedStates = size(myStates);
+			myIndexedCharacteristics = size(myCharacteristics);
+			List<Object> components = new ArrayList<Object>();
+			if (myStates != null)
+				components.addAll(myStates);
+			if (myCharacteristics != null)
+				components.addAll(myCharacteristics);
+			for (Object component : components) {
+				for (Class<?> type = component.getClass(); type != Object.class; type = type.getSuperclass()) {
+					ComponentRegistry.getId(type);
+				}
+			}
+			index = new Object[ComponentRegistry.size()];
+			for (Object component : components) {
+				for (Class<?> type = component.getClass(); type != Object.class; type = type.getSuperclass()) {
+					int id = ComponentRegistry.getId(type);
+					if (index[id] == null)
+						index[id] = component;
+				}
+			}
+			myComponentIndex = index;
+		}
+		return index;
+	}
+
+	private int size(Set<?> aSet) {
+		return aSet == null ? 0 : aSet.size();
 	}
 
 	public Location getLocation() {
+		if (myKinematics != null)
+			return myKinematics.getLocation(myKinematicsSlot);
 		return myLocation;
 	}
 
+	/**
+	 * While the Sprite is attached to a KinematicsStore the coordinates of
+	 * myLocation are copied into the store rather than the object being kept.
+	 */
 	public void setLocation(Location myLocation) {
-		if (this.myLocation==null || !this.myLocation.equals(myLocation)){
+		if (this.myKinematics != null) {
+			if (!getLocation().equals(myLocation)) {
+				this.myKinematics.setLocation(myKinematicsSlot, myLocation.getXLocation(), myLocation.getYLocation());
+				notifyListeners();
+			}
+		}
+		else if (this.myLocation==null || !this.myLocation.equals(myLocation)){
 			this.myLocation = myLocation;
 			notifyListeners();
 		}
 	}
 
+	/**
+	 * Moves the Sprite to (aXLocation, aYLocation) by updating its current
+	 * Location in place, so no Location object is allocated.
+	 */
+	public void setLocation(double aXLocation, double aYLocation) {
+		Location location = getLocation();
+		if (location == null) {
+			myLocation = new Location(aXLocation, aYLocation);
+			notifyListeners();
+		}
+		else if (location.getXLocation() != aXLocation || location.getYLocation() != aYLocation) {
+			location.setLocation(aXLocation, aYLocation);
+			notifyListeners();
+		}
+	}
+
+	public void translate(double aXDistance, double aYDistance) {
+		setLocation(getLocation().getXLocation() + aXDistance, getLocation().getYLocation() + aYDistance);
+	}
+
 	public double getXVelocity() {
+		if (myKinematics != null)
+			return myKinematics.getXVelocity(myKinematicsSlot);
 		return myXVelocity;
 	}
 
 	public double getYVelocity() {
+		if (myKinematics != null)
+			return myKinematics.getYVelocity(myKinematicsSlot);
 		return myYVelocity;
 	}
 
 	public void setXVelocity(double myVelocity) {
 		//		System.out.println("TERMINAL X " + terminalXVel);
-		if (this.myXVelocity!=myVelocity){
-			if (Math.abs(myVelocity) > terminalXVel) {
-				this.myXVelocity = (myVelocity/Math.abs(myVelocity))*terminalXVel;
+		if (getXVelocity()!=myVelocity){
+			if (Math.abs(myVelocity) > getTerminalXVel()) {
+				storeXVelocity((myVelocity/Math.abs(myVelocity))*getTerminalXVel());
 			}
 			else{
-				this.myXVelocity = myVelocity;
+				storeXVelocity(myVelocity);
 			}
 			notifyListeners();
 		}
@@ -190,31 +349,55 @@ public abstract class Sprite extends GameObject {
 	}
 
 	public void setYVelocity(double myVelocity) {
-		if (this.myYVelocity!=myVelocity){
-			if (Math.abs(myVelocity) > terminalYVel) {
-				this.myYVelocity = (myVelocity/Math.abs(myVelocity))*terminalYVel;
+		if (getYVelocity()!=myVelocity){
+			if (Math.abs(myVelocity) > getTerminalYVel()) {
+				storeYVelocity((myVelocity/Math.abs(myVelocity))*getTerminalYVel());
 			}
 			else{
-				this.myYVelocity = myVelocity;
+				storeYVelocity(myVelocity);
 			}
 			notifyListeners();
 		}
 	}
 
+	private void storeXVelocity(double aVelocity) {
+		if (myKinematics != null)
+			myKinematics.setXVelocity(myKinematicsSlot, aVelocity);
+		else
+			this.myXVelocity = aVelocity;
+	}
+
+	private void storeYVelocity(double aVelocity) {
+		if (myKinematics != null)
+			myKinematics.setYVelocity(myKinematicsSlot, aVelocity);
+		else
+			this.myYVelocity = aVelocity;
+	}
+
 	public double getXAcceleration() {
+		if (myKinematics != null)
+			return myKinematics.getXAcceleration(myKinematicsSlot);
 		return myXAcceleration;
 	}
 
 	public void setXAcceleration(double myXAcceleration) {
-		this.myXAcceleration = myXAcceleration;
+		if (this.myKinematics != null)
+			this.myKinematics.setXAcceleration(myKinematicsSlot, myXAcceleration);
+		else
+			this.myXAcceleration = myXAcceleration;
 	}
 
 	public double getYAcceleration() {
+		if (myKinematics != null)
+			return myKinematics.getYAcceleration(myKinematicsSlot);
 		return myYAcceleration;
 	}
 
 	public void setYAcceleration(double myYAcceleration) {
-		this.myYAcceleration = myYAcceleration;
+		if (this.myKinematics != null)
+			this.myKinematics.setYAcceleration(myKinematicsSlot, myYAcceleration);
+		else
+			this.myYAcceleration = myYAcceleration;
 	}
 
 	public String getImagePath() {
@@ -286,31 +469,132 @@ public abstract class Sprite extends GameObject {
 	}
 
 	public double getTerminalXVel() {
+		if (myKinematics != null)
+			return myKinematics.getTerminalXVelocity(myKinematicsSlot);
 		return terminalXVel;
 	}
 	public void setTerminalXVel(double terminalXVel) {
-		this.terminalXVel = terminalXVel;
+		if (this.myKinematics != null)
+			this.myKinematics.setTerminalXVelocity(myKinematicsSlot, terminalXVel);
+		else
+			this.terminalXVel = terminalXVel;
 	}
 	public double getTerminalYVel() {
+		if (myKinematics != null)
+			return myKinematics.getTerminalYVelocity(myKinematicsSlot);
 		return terminalYVel;
 	}
 	public void setTerminalYVel(double terminalYVel) {
-		this.terminalYVel = terminalYVel;
+		if (this.myKinematics != null)
+			this.myKinematics.setTerminalYVelocity(myKinematicsSlot, terminalYVel);
+		else
+			this.terminalYVel = terminalYVel;
 	}
 	public void resetTerminalVelocities(){
 		//		System.out.println("LUCIA");
-		this.terminalXVel = GameResources.TERMINAL_X_VELOCITY.getDoubleResource();
-		this.terminalYVel = GameResources.TERMINAL_Y_VELOCITY.getDoubleResource();
+		setTerminalXVel(GameResources.TERMINAL_X_VELOCITY.getDoubleResource());
+		setTerminalYVel(GameResources.TERMINAL_Y_VELOCITY.getDoubleResource());
+	}
+
+	public KinematicsStore getKinematics() {
+		return myKinematics;
+	}
+
+	public int getKinematicsSlot() {
+		return myKinematicsSlot;
 	}
 
-	public Map<Characteristic, Double> getPowerUps() {
+	public CharacteristicRegistry getCharacteristicRegistry() {
+		return myCharacteristicRegistry;
+	}
+
+	/**
+	 * Called by the CharacteristicRegistry of the Level this Sprite is added
+	 * to, or with null when it is removed.
+	 */
+	public void bindCharacteristicRegistry(CharacteristicRegistry aRegistry) {
+		myCharacteristicRegistry = aRegistry;
+	}
+
+	/**
+	 * Called by a KinematicsStore when it takes over, or moves, this Sprite's
+	 * kinematic state.
+	 */
+	public void bindKinematics(KinematicsStore aStore, int aSlot) {
+		myKinematics = aStore;
+		myKinematicsSlot = aSlot;
+	}
+
+	/**
+	 * Copies the kinematic state back from the store into this Sprite's own
+	 * fields and stops reading from the store.
+	 */
+	public void unbindKinematics() {
+		syncKinematics();
+		myKinematics = null;
+	}
+
+	/**
+	 * @return the Location a KinematicsStore last handed out for this Sprite,
+	 *         kept so that attaching it again does not construct another
+	 */
+	public Location getKinematicsLocation() {
+		return myKinematicsLocation;
+	}
+
+	public void setKinematicsLocation(Location aLocation) {
+		myKinematicsLocation = aLocation;
+	}
+
+	/**
+	 * Called by a KinematicsStore after it moved this Sprite.
+	 */
+	public void kinematicsChanged() {
+		notifyListeners();
+	}
+
+	private void syncKinematics() {
+		if (myKinematics != null) {
+			setOwnLocation(getLocation().getXLocation(), getLocation().getYLocation());
+			myXVelocity = getXVelocity();
+			myYVelocity = getYVelocity();
+			myXAcceleration = getXAcceleration();
+			myYAcceleration = getYAcceleration();
+			terminalXVel = getTerminalXVel();
+			terminalYVel = getTerminalYVel();
+		}
+	}
+
+	private void setOwnLocation(double aXLocation, double aYLocation) {
+		if (myLocation == null) {
+			myLocation = new Location(aXLocation, aYLocation);
+		}
+		else {
+			myLocation.setLocation(aXLocation, aYLocation);
+		}
+	}
+
+	/**
+	 * XStream writes the fields, so bring them up to date first. Not private,
+	 * otherwise XStream would not find it on subclasses.
+	 */
+	protected Object writeReplace() {
+		syncKinematics();
+		return this;
+	}
+
+	/**
+	 * @return the power ups in effect on this Sprite; each one keeps the time
+	 *         it has left itself
+	 */
+	public Set<TemporalPowerUpper> getPowerUps() {
 		if(powerUps == null){
-			powerUps = new HashMap<Characteristic, Double>();
+			powerUps = new LinkedHashSet<TemporalPowerUpper>();
 		}
 		return powerUps;
 	}
 
-	public void setPowerUps(Map<Characteristic, Double> powerUps){
+	public void setPowerUps(Set<TemporalPowerUpper> powerUps){
 		this.powerUps = powerUps;
 	}
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
+import game_engine.ActionDispatcher;
 import game_engine.Bottom;
 import game_engine.Side;
 import game_engine.Top;
@@ -59,7 +60,7 @@ public class Bouncer implements Characteristic {
 		for (Sprite collidedSprite : myCollisionMap.keySet()) {
 			if (collidedSprite instanceof Player) {
 				myAction = new Bounce(myBounceSpeedHorizontal, myBounceSpeedVertical, collidedSprite, myCollisionMap.get(collidedSprite));
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 				timeAfterCollisionCount=0;
 				bouncing=true;
 				bouncingSprite=collidedSprite;
@@ -78,6 +79,10 @@ public class Bouncer implements Characteristic {
 	}
 	private void resetControls(){
 		timeAfterCollisionCount++;
+		Sprite sprite = bouncingSprite;
+		ActionDispatcher.dispatch(() -> removeMoveControls(sprite));
+	}
+	private void removeMoveControls(Sprite bouncingSprite){
 		Map<KeyCode, Action> newKeyMap = new HashMap<KeyCode, Action>(bouncingSprite.getControllable().getMyKeyPressedMap());
 		//System.out.println(newKeyMap.size());
 		HashSet<KeyCode> keysToRemove = new HashSet<KeyCode>();
@@ -92,11 +97,15 @@ public class Bouncer implements Characteristic {
 		bouncingSprite.getControllable().setMyKeyPressedMap(newKeyMap);
 	}
 	private void finishBouncing(){		
-			bouncingSprite.setXVelocity(0);
-			bouncingSprite.setYVelocity(0);
+			Sprite sprite = bouncingSprite;
+			Map<KeyCode, Action> keyPressedMap = new HashMap<KeyCode, Action>(originalKeyPressedMap);
+			ActionDispatcher.dispatch(() -> {
+				sprite.setXVelocity(0);
+				sprite.setYVelocity(0);
+				sprite.getControllable().setMyKeyPressedMap(keyPressedMap);
+			});
 			bouncing=false;
 			//System.out.println("size: " +originalKeyPressedMap.size());
-			bouncingSprite.getControllable().setMyKeyPressedMap(new HashMap<KeyCode, Action>(originalKeyPressedMap));
 			timeAfterCollisionCount=0;		
 	}
 
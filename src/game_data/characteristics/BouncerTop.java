@@ -8,6 +8,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.Action;
 import game_engine.actions.Bounce;
@@ -42,7 +43,7 @@ public class BouncerTop implements Characteristic {
 			// is going to need to have arguments after implemented
 			if (collidedSprite instanceof Player) {
 				myAction = new BounceTopOnly(myBounceSpeed, collidedSprite, myCollisionMap.get(collidedSprite), mySprite);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}
 		}
 	}
@@ -7,13 +7,17 @@ package game_data.characteristics;
 
 import java.util.Map;
 
+import com.thoughtworks.xstream.annotations.XStreamOmitField;
+
 import game_data.Sprite;
 import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
 import game_data.sprites.Projectile;
+import game_engine.ActionDispatcher;
 import game_engine.Bottom;
+import game_engine.GameResources;
 import game_engine.Left;
 import game_engine.Right;
 import game_engine.Side;
@@ -32,7 +36,8 @@ public class Breakable implements Characteristic{
 	private int myDurability;
 	private Action myAction;
 	private Sprite mySprite;
-	private int timeSinceHit;
+	@XStreamOmitField
+	private boolean isUnbreakable;
 	
 	@ParameterAnnotation(parameters = {"Breaks on Top", "Breaks on Bottom", "Breaks on Right", "Breaks on Left", "Durability", "Sprite"})
 	public Breakable(boolean north, boolean south, boolean east, boolean west, int durability, Sprite aSprite){
@@ -42,7 +47,6 @@ public class Breakable implements Characteristic{
 		breakableWest = west;
 		myDurability = durability;
 		mySprite = aSprite;
-		timeSinceHit = 20;
 	}
 	
 	public void setDurability(int durability){
@@ -57,16 +61,16 @@ public class Breakable implements Characteristic{
 	@Override
 	public void execute(Map<Sprite, Side> myCollisionMap){
 		//System.out.println("durability" + myDurability);
-		if(inUnbreakablePeriod()) {
+		if(isUnbreakable) {
 			return;
 		}
 		
 		for(Sprite collidedSprite:myCollisionMap.keySet() ){
 			if(breaksAtDirection(myCollisionMap.get(collidedSprite))&& validPairing(collidedSprite) ){
-				timeSinceHit = 0;
+				startUnbreakablePeriod();
 				if(isBroken()){	
 					myAction = new Break(mySprite);
-					myAction.act();
+					ActionDispatcher.dispatch(myAction);
 				}
 			}
 		}
@@ -78,9 +82,14 @@ public class Breakable implements Characteristic{
 		return (mySprite instanceof Projectile || collidedSprite instanceof Player);
 	}
 	
-	private boolean inUnbreakablePeriod() {
-		timeSinceHit++;
-		return timeSinceHit < 20;
+	/**
+	 * Ignores further hits until the timer started here runs out.
+	 */
+	private void startUnbreakablePeriod() {
+		if(!isUnbreakable) {
+			isUnbreakable = true;
+			ActionDispatcher.schedule((long) GameResources.UNBREAKABLE_TIME.getDoubleResource(), () -> isUnbreakable = false);
+		}
 	}
 	
 	private boolean isBroken() {
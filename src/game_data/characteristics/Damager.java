@@ -8,6 +8,7 @@ import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
 import game_data.sprites.Projectile;
+import game_engine.ActionDispatcher;
 import game_engine.Bottom;
 import game_engine.Left;
 import game_engine.Right;
@@ -59,7 +60,7 @@ public class Damager implements Characteristic{
 		for(Sprite collidedSprite:myCollisionMap.keySet()){
 			if(breaksAtDirection(myCollisionMap.get(collidedSprite)) && validPairing(mySprite, collidedSprite)){
 			Action myAction = new Damage(myDamageToGive, collidedSprite);
-			myAction.act();
+			ActionDispatcher.dispatch(myAction);
 			}
 		}
 		
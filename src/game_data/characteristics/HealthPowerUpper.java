@@ -1,4 +1,5 @@
 package game_data.characteristics;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.*;
 
@@ -44,7 +45,7 @@ public class HealthPowerUpper extends PowerUpper implements Characteristic{
 
 			if (collidedSprite instanceof Player){
 				myAction = new AddHealth(-getHealthToGain(), collidedSprite);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}		
 		}
 
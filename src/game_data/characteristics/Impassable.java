@@ -5,6 +5,7 @@ import java.util.Map;
 import game_data.Sprite;
 import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.Action;
 import game_engine.actions.Hit;
@@ -31,7 +32,7 @@ public class Impassable implements Characteristic{
 	public void execute(Map<Sprite, Side> myCollisionMap){
 		for(Sprite collidedSprite:myCollisionMap.keySet()){
 			myAction = new Hit(collidedSprite, myCollisionMap.get(collidedSprite), mySprite);
-			myAction.act();
+			ActionDispatcher.dispatch(myAction);
 		}
 	}
 
@@ -2,6 +2,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_data.Level;
 import game_data.Sprite;
@@ -9,11 +10,9 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
-import game_data.states.State;
 import game_data.states.Vincibility;
 import game_data.states.Visible;
 import game_engine.GameResources;
-import game_engine.IUpdateStatesAndPowerUps;
 import game_engine.UpdateStates;
 import game_engine.actions.Action;
 import game_engine.actions.Invincibility;
@@ -60,58 +59,51 @@ public class InvincibilityPowerUpper extends TemporalPowerUpper implements Chara
 				addToPowerUpMap(collidedSprite, myTimeInEffect);
 				myAction = new Invincibility(collidedSprite);
 				// System.out.println("characteristic in");
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}
 		}
 	}
 
 	@Override
-	public void reversePowerUp(Sprite playerSprite, IUpdateStatesAndPowerUps  myInterface) {
-		for (State state : playerSprite.getStates()) {
-			if (state instanceof Vincibility) {
-				((Vincibility) state).setVincibility(true);
-			}
-			if (state instanceof Visible) {
-				((Visible) state).setVisibility(true);
-			}
+	public void reversePowerUp(Sprite playerSprite) {
+		Vincibility vincibility = playerSprite.getState(Vincibility.class);
+		if (vincibility != null) {
+			vincibility.setVincibility(true);
+		}
+		Visible visible = playerSprite.getState(Visible.class);
+		if (visible != null) {
+			visible.setVisibility(true);
 		}
 
 	}
 
 	@Override
-	public void activatePowerUp(Sprite playerSprite, IUpdateStatesAndPowerUps myInterface, Double timeElapsed) {
+	public void activatePowerUp(Sprite playerSprite, double timeLeft) {
 //		System.out.println("Should be invisible");
 //		System.out.println("activate power up");
 
-		addToPowerUpMap(playerSprite, timeElapsed);
-		boolean hasVisibility = false;
-		for (State state : playerSprite.getStates()) {
-//			System.out.println("1");
-
-			if (state instanceof Visible) {
-				hasVisibility = true;
-//				System.out.println("2");
-//				System.out.println("Should be invisible");
-				((Visible) state).setVisibility((timeElapsed.intValue()) % GameResources.FLASH_RATE.getDoubleResource() == 0);
-
-			}
+		Visible visible = playerSprite.getState(Visible.class);
+		if (visible != null) {
+			visible.setVisibility(((int) timeLeft) % GameResources.FLASH_RATE.getDoubleResource() == 0);
 		}
-		if (!hasVisibility) {
+		else {
 //			System.out.println("3");
 
-			playerSprite.addState(new Visible((timeElapsed.intValue()) % GameResources.FLASH_RATE.getDoubleResource() == 0));
+			playerSprite.addState(new Visible(((int) timeLeft) % GameResources.FLASH_RATE.getDoubleResource() == 0));
 		}
 	}
 
+	/**
+	 * Flashes the player until the power up runs out.
+	 */
 	@Override
-	public boolean checkForSpecificTemporalPowerUpper(Sprite collidedSprite, double myTimeInEffect, boolean hasChanged,
-			Characteristic characteristic) {
-			if(characteristic instanceof InvincibilityPowerUpper){
-//				System.out.println("LUCIA:");
-				collidedSprite.getPowerUps().put(characteristic, myTimeInEffect);
-				hasChanged = true;
-			}
-			return hasChanged;
+	public void updatePowerUp(Sprite playerSprite) {
+		activatePowerUp(playerSprite, getTimeLeft());
+	}
+
+	@Override
+	public boolean checkForSpecificTemporalPowerUpper(Characteristic characteristic) {
+			return characteristic instanceof InvincibilityPowerUpper;
 	}
 
 }
\ No newline at end of file
@@ -20,13 +20,11 @@ public class Launcher implements Characteristic{
 	
 	private Sprite mySprite;
 	private int myTimeInterval;
-	private int myCurrentTime;
 	
 	@ParameterAnnotation(parameters = {"Sprite", "Time Interval"})
 	public Launcher(Sprite sprite, int timeInterval) {
 		mySprite = sprite;
 		myTimeInterval = timeInterval;
-		myCurrentTime = 0;
 	}
 	
 	public Sprite getLaunched() {
@@ -39,16 +37,16 @@ public class Launcher implements Characteristic{
 	}
 	
 
+	/**
+	 * Nothing is launched yet, so no timer is booked for it either. Once there
+	 * is an Action to run, schedule it every Time Interval ticks with
+	 * ActionDispatcher.schedule.
+	 */
 	@Override
 	public void execute(Map<Sprite, Side> myCollisionMap) {
-		myCurrentTime++;
-		if(myTimeInterval != 0)
-			myCurrentTime %= myTimeInterval;
-		if(myCurrentTime == 0){
-			//TODO need to make action
-			//Action myAction = new Launch(mySprite, collidedSprite);
-			//myAction.act();
-		}
+		//TODO need to make action
+		//Action myAction = new Launch(mySprite, collidedSprite);
+		//myAction.act();
 	}
 
 	@Override
@@ -8,6 +8,7 @@ import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.sprites.Item;
 //import javafx.geometry.Side;
 import game_data.sprites.Player;
+import game_engine.ActionDispatcher;
 import game_engine.Bottom;
 import game_engine.Left;
 import game_engine.Right;
@@ -41,34 +42,32 @@ public class Movable implements Characteristic{
 			
 			for(Sprite collidedSprite:myCollisionMap.keySet()){
 				if((collidedSprite instanceof Item)){
-					for(Characteristic i : collidedSprite.getCharacteristics()){
-						if( i instanceof Movable){
+					if(collidedSprite.hasCharacteristic(Movable.class)){
+						
+						Side temp = myCollisionMap.get(collidedSprite);
+						System.out.println(temp.toString());
+						
+						if(temp.isHorizontal()){
 							
-							Side temp = myCollisionMap.get(collidedSprite);
-							System.out.println(temp.toString());
+							if(temp instanceof Left){
+								impassLeft = true;
+							} 
+							else{
+								impassRight = true;
+							}
+						}
+						else{
 							
-							if(temp.isHorizontal()){
-								
-								if(temp instanceof Left){
-									impassLeft = true;
-								} 
-								else{
-									impassRight = true;
-								}
+							if(temp instanceof Top){
+								impassTop = true;
 							}
 							else{
 								
-								if(temp instanceof Top){
-									impassTop = true;
-								}
-								else{
-									
-									impassBottom = true;
-									
-								}
+								impassBottom = true;
+								
 							}
-							
 						}
+						
 					}
 				}
 				if(collidedSprite instanceof Player){
@@ -81,21 +80,21 @@ public class Movable implements Characteristic{
 			if(playerSprite != null){
 				if(playerCollisionSide instanceof Left && !impassRight){
 					Action myAction = new MovableTriggered(mySprite, playerSprite, playerCollisionSide);
-					myAction.act();
+					ActionDispatcher.dispatch(myAction);
 				}
 				else if(playerCollisionSide instanceof Right && !impassLeft){
 					Action myAction = new MovableTriggered(mySprite, playerSprite, playerCollisionSide);
-					myAction.act();
+					ActionDispatcher.dispatch(myAction);
 				}
 				else if (playerCollisionSide instanceof Top && !impassBottom){
 					
 					Action myAction = new MovableTriggered(mySprite, playerSprite, playerCollisionSide);
-					myAction.act();
+					ActionDispatcher.dispatch(myAction);
 				}
 				else if (playerCollisionSide instanceof Bottom && !impassTop){
 					
 					Action myAction = new MovableTriggered(mySprite, playerSprite, playerCollisionSide);
-					myAction.act();
+					ActionDispatcher.dispatch(myAction);
 				} 
 			}
 					
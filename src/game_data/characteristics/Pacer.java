@@ -14,6 +14,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Terrain;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.Action;
 import game_engine.actions.Pace;
@@ -59,12 +60,15 @@ public class Pacer implements Characteristic {
 	}
 	
 	private void makeSureNonZeroVelocities() {
+		Sprite sprite = mySprite;
 		if(mySprite.getXVelocity() == 0 && previousDirection) {
-			mySprite.setXVelocity(previousNonZeroXVelocity*-1);
+			double xVelocity = previousNonZeroXVelocity*-1;
+			ActionDispatcher.dispatch(() -> sprite.setXVelocity(xVelocity));
 			myDistanceTraveled = 0;
 		}
 		if(mySprite.getYVelocity() == 0 && !previousDirection) {
-			mySprite.setYVelocity(previousNonZeroYVelocity*-1);
+			double yVelocity = previousNonZeroYVelocity*-1;
+			ActionDispatcher.dispatch(() -> sprite.setYVelocity(yVelocity));
 			myDistanceTraveled = 0;
 		}
 	}
@@ -93,7 +97,7 @@ public class Pacer implements Characteristic {
 		updateStoredVelocities();
 		makeSureNonZeroVelocities();
 		Action pace = new Pace(mySprite, shouldChangeDirection(isCollisionOtherThanPlayer(myCollisionMap)));
-		pace.act();
+		ActionDispatcher.dispatch(pace);
 	}
 	
 	@Override
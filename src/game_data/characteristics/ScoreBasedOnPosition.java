@@ -16,7 +16,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.sprites.Player;
 import game_data.states.Score;
-import game_data.states.State;
+import game_engine.ActionDispatcher;
 import game_engine.actions.Action;
 import game_engine.actions.Break;
 import game_engine.actions.ScoreAdder;
@@ -69,7 +69,7 @@ public class ScoreBasedOnPosition implements Characteristic {
 //		System.out.println("points to add " + toAdd);
 		if (validAddition(scrollDirection)) {
 			Action myAction = new ScoreAdder(toAdd, mySprite);
-			myAction.act();
+			ActionDispatcher.dispatch(myAction);
 			pointsAdded += toAdd;
 		}
 		
@@ -126,10 +126,9 @@ public class ScoreBasedOnPosition implements Characteristic {
 	}
 
 	private void updateMyScore() {
-		for (State state : mySprite.getStates()) {
-			if (state instanceof Score)
-				myScore = ((Score) state).getMyScore();
-		}
+		Score score = mySprite.getState(Score.class);
+		if (score != null)
+			myScore = score.getMyScore();
 	}
 
 	public void setScrollDirection(ScrollType myScrollType){
@@ -12,6 +12,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
+import game_engine.ActionDispatcher;
 import game_engine.GameResources;
 import game_engine.actions.Action;
 import game_engine.actions.Break;
@@ -38,7 +39,7 @@ public class ScoreBasedOnTime implements Characteristic {
 	@Override
 	public void execute(Map<Sprite, Side> myCollisionMap) {
 		Action myAction = new ScoreAdder(scorePerSecond/GameResources.TIME_FRAME.getDoubleResource(), mySprite);
-		myAction.act();
+		ActionDispatcher.dispatch(myAction);
 	}
 
 	@Override
@@ -1,4 +1,5 @@
 package game_data.characteristics;
+import game_engine.ActionDispatcher;
 import game_engine.IUpdateStatesAndPowerUps;
 import game_engine.Side;
 import game_engine.actions.*;
@@ -47,7 +48,7 @@ public class ScorePowerUpper extends PowerUpper implements Characteristic{
 		for(Sprite collidedSprite:myCollisionMap.keySet()){
 			if (collidedSprite instanceof Player){
 				myAction = new ScoreAdder(getScoreToGain(), collidedSprite);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}		
 		}
 
@@ -1,6 +1,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 
 import game_data.Sprite;
@@ -26,7 +27,7 @@ public class Shooter implements Characteristic {
 	public void execute(Map<Sprite, Side> myCollisionMap) {
 			if (mySprite instanceof Player) {
 				myAction = new Shoot(mySprite);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}
 	
 	}
@@ -10,7 +10,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
-import game_engine.IUpdateStatesAndPowerUps;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.Action;
 import game_engine.actions.Move;
@@ -68,14 +68,14 @@ public class SpeedPowerUpper extends TemporalPowerUpper implements Characteristi
 					}
 				}
 				myAction = new SpeedBoost(collidedSprite, mySpeedBoost);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}
 			
 		}
 	}
 
 	@Override
-	public void reversePowerUp(Sprite playerSprite, IUpdateStatesAndPowerUps myInterface) {
+	public void reversePowerUp(Sprite playerSprite) {
 		playerSprite.resetTerminalVelocities();
 		for(KeyCode key:  playerSprite.getControllable().getMyKeyPressedMap().keySet()){
 			( (Move) playerSprite.getControllable().getMyKeyPressedMap().get(key)).setMyVelocity(defaultKeyPressedMap.get(key));
@@ -88,7 +88,7 @@ public class SpeedPowerUpper extends TemporalPowerUpper implements Characteristi
 
 	
 	@Override
-	public void activatePowerUp(Sprite playerSprite, IUpdateStatesAndPowerUps myInterface, Double timeElapsed) {
+	public void activatePowerUp(Sprite playerSprite, double timeLeft) {
 //		System.out.println("LUCIA");
 //		System.out.println("power up " );
 //		playerSprite.getControllable().resetMyKeyPressedMap();
@@ -110,14 +110,8 @@ public class SpeedPowerUpper extends TemporalPowerUpper implements Characteristi
 	}
 
 	@Override
-	public boolean checkForSpecificTemporalPowerUpper(Sprite collidedSprite, double myTimeInEffect, boolean hasChanged,
-			Characteristic characteristic) {
-//		System.out.println("LUCIA");
-			if(characteristic instanceof SpeedPowerUpper){
-				collidedSprite.getPowerUps().put(characteristic, myTimeInEffect);
-				hasChanged = true;
-			}
-			return hasChanged;
+	public boolean checkForSpecificTemporalPowerUpper(Characteristic characteristic) {
+			return characteristic instanceof SpeedPowerUpper;
 	}
 
 
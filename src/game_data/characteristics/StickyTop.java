@@ -1,6 +1,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 
 import game_data.Sprite;
@@ -29,7 +30,7 @@ public abstract class StickyTop implements Characteristic{
 	public void execute(Map<Sprite, Side> myCollisionMap){
 		for(Sprite collidedSprite:myCollisionMap.keySet()){
 			myAction = new Stick(collidedSprite, mySprite, horizontal);
-			myAction.act();
+			ActionDispatcher.dispatch(myAction);
 		}
 	}
 
@@ -7,6 +7,7 @@ import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
 import game_data.characteristics.characteristic_annotations.ViewableMethodOutput;
 import game_data.sprites.Player;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 import game_engine.actions.Action;
 import game_engine.actions.Teleport;
@@ -46,7 +47,7 @@ public class Teleporter implements Characteristic {
 		for (Sprite collidedSprite : myCollisionMap.keySet()) {
 			if (collidedSprite instanceof Player) {
 				myAction = new Teleport(collidedSprite, myXLocation, myYLocation);
-				myAction.act();
+				ActionDispatcher.dispatch(myAction);
 			}			
 		}
 	}
@@ -1,9 +1,12 @@
 package game_data.characteristics;
 
+import com.thoughtworks.xstream.annotations.XStreamOmitField;
+
 import game_data.Sprite;
 import game_data.characteristics.characteristic_annotations.NameAnnotation;
 import game_data.characteristics.characteristic_annotations.ParameterAnnotation;
-import game_engine.IUpdateStatesAndPowerUps;
+import game_engine.ActionDispatcher;
+import game_engine.TimingWheel;
 import game_engine.UpdateStates;
 
 /**
@@ -12,6 +15,13 @@ import game_engine.UpdateStates;
 
 @NameAnnotation(name = "Temporal Power Up")
 public abstract class TemporalPowerUpper extends PowerUpper implements Characteristic, ICharactericticAction {
+
+	@XStreamOmitField
+	private TimingWheel myTimingWheel;
+	@XStreamOmitField
+	private long myTimer;
+	@XStreamOmitField
+	private double myTimeRoundedUp;
 		
 	@ParameterAnnotation(parameters = {"Sprite"})
 	public TemporalPowerUpper(Sprite aSprite){
@@ -19,32 +29,85 @@ public abstract class TemporalPowerUpper extends PowerUpper implements Character
 	}
 	
 	
-	public abstract void reversePowerUp(Sprite playerSprite,IUpdateStatesAndPowerUps myInterface);
+	public abstract void reversePowerUp(Sprite playerSprite);
 	
-	public abstract void activatePowerUp(Sprite palyerSprite, IUpdateStatesAndPowerUps myInterface, Double timeElapsed);
+	public abstract void activatePowerUp(Sprite palyerSprite, double timeLeft);
+
+	/**
+	 * Called every tick while this power up is on playerSprite, for effects
+	 * that change with the time left. Activating and reversing the power up
+	 * happen when it starts and when its timer runs out instead.
+	 */
+	public void updatePowerUp(Sprite playerSprite) {
+	}
+
+	/**
+	 * @return ticks until this power up runs out, or 0 if it is not active
+	 */
+	public double getTimeLeft() {
+		if (myTimingWheel == null) {
+			return 0;
+		}
+		return myTimingWheel.getRemaining(myTimer) - myTimeRoundedUp;
+	}
 	
 //	public abstract void initializePowerUp(Sprite playerSprite);
 	
+	/**
+	 * Starts or refreshes this power up on collidedSprite. The power up set
+	 * belongs to the other Sprite, so the change is dispatched like an Action.
+	 */
 	public void addToPowerUpMap(Sprite collidedSprite, double myTimeInEffect){
+		ActionDispatcher.dispatch(() -> putInPowerUpMap(collidedSprite, myTimeInEffect));
+	}
 
-		boolean hasChanged = false;
-		for(Characteristic characteristic: collidedSprite.getPowerUps().keySet()){
-			hasChanged = checkForSpecificTemporalPowerUpper(collidedSprite, myTimeInEffect, hasChanged, characteristic);
+	private void putInPowerUpMap(Sprite collidedSprite, double myTimeInEffect){
+		for(TemporalPowerUpper powerUp: collidedSprite.getPowerUps()){
+			if(checkForSpecificTemporalPowerUpper(powerUp)){
+				powerUp.start(collidedSprite, myTimeInEffect);
+				return;
+			}
 		}
-		if(!hasChanged) {
-//			if(this == null) System.out.println("Austin is right");
-			collidedSprite.getPowerUps().put(this, myTimeInEffect);
-//			System.out.println("second if");
-		}
-		
-//		collidedSprite.setPowerUps(collidedSprite.getPowerUps());
-//		System.out.println("map size later  "+collidedSprite.getPowerUps().size());
+		collidedSprite.getPowerUps().add(this);
+		start(collidedSprite, myTimeInEffect);
+	}
 
+	/**
+	 * (Re)starts the timer that ends this power up on aPlayer once
+	 * aTimeInEffect ticks have passed, on the TimingWheel of the Level being
+	 * updated, and activates it. Outside of an update there is no tick to wait
+	 * for and it ends right away.
+	 */
+	private void start(Sprite aPlayer, double aTimeInEffect) {
+		if (myTimingWheel != null) {
+			myTimingWheel.cancel(myTimer);
+			myTimingWheel = null;
+		}
+		TimingWheel timingWheel = ActionDispatcher.getTimingWheel();
+		if (timingWheel != null) {
+			long ticks = Math.max(1, (long) Math.ceil(aTimeInEffect));
+			myTimer = timingWheel.schedule(ticks, () -> end(aPlayer));
+			myTimeRoundedUp = ticks - aTimeInEffect;
+			myTimingWheel = timingWheel;
+		}
+		activatePowerUp(aPlayer, getTimeLeft());
+		if (timingWheel == null) {
+			end(aPlayer);
+		}
 	}
 
+	private void end(Sprite aPlayer) {
+		myTimingWheel = null;
+		if (aPlayer.getPowerUps().remove(this)) {
+			reversePowerUp(aPlayer);
+		}
+	}
 
-	public abstract boolean checkForSpecificTemporalPowerUpper(Sprite collidedSprite, double myTimeInEffect, boolean hasChanged,
-			Characteristic characteristic);
+	/**
+	 * @return whether characteristic is a power up of the same kind as this
+	 *         one, which is refreshed instead of this one being added
+	 */
+	public abstract boolean checkForSpecificTemporalPowerUpper(Characteristic characteristic);
 	
 	public ICharactericticAction getInterface(){
 		return this;
@@ -1,6 +1,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 
 import game_data.Sprite;
@@ -27,7 +28,7 @@ public class TransparentBottomImpassable implements Characteristic{
 	public void execute(Map<Sprite, Side> myCollisionMap){
 		for(Sprite collidedSprite:myCollisionMap.keySet()){
 			myAction = new HitTop(collidedSprite, myCollisionMap.get(collidedSprite), mySprite);
-			myAction.act();
+			ActionDispatcher.dispatch(myAction);
 		}
 	}
 
@@ -1,6 +1,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 
 import game_data.Sprite;
@@ -10,7 +11,6 @@ import game_data.characteristics.characteristic_annotations.ViewableMethodOutput
 import game_data.sprites.Player;
 import game_data.states.LevelWon;
 import game_data.states.Score;
-import game_data.states.State;
 import game_engine.actions.WinLevel;
 //import javafx.geometry.Side;
 
@@ -39,15 +39,11 @@ public class WinByScore implements Characteristic{
 	public void execute(Map<Sprite, Side> myCollisionMap) {
 		//TODO: make and execute win action
 			if(mySprite instanceof Player ){
-				double myScore = 0 ;
-				for(State state:mySprite.getStates()){
-					if(state instanceof Score){
-						myScore = ((Score) state).getMyScore();
-					}
-				}
+				Score score = mySprite.getState(Score.class);
+				double myScore = score == null ? 0 : score.getMyScore();
 				if(myScore > scoreToWin){
 					WinLevel winlevel=new WinLevel(mySprite);
-					winlevel.act();
+					ActionDispatcher.dispatch(winlevel);
 				}
 				//System.out.println("poop if winning");
 			
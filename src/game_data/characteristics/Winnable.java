@@ -1,6 +1,7 @@
 package game_data.characteristics;
 
 import java.util.Map;
+import game_engine.ActionDispatcher;
 import game_engine.Side;
 
 import game_data.Sprite;
@@ -36,7 +37,7 @@ public class Winnable implements Characteristic{
 			if(collidedSprite instanceof Player){
 				//System.out.println("poop if winning");
 				WinLevel winlevel=new WinLevel(collidedSprite);
-				winlevel.act();
+				ActionDispatcher.dispatch(winlevel);
 			}
 		}
 	}
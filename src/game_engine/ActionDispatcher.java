@@ -0,0 +1,101 @@
+package game_engine;
+
+import java.util.List;
+
+import game_engine.actions.Action;
+
+/**
+ * The way a Characteristic changes the game. Outside of
+ * UpdateStates.executeCharacteristics a dispatched change happens right away.
+ * While Characteristics are executed, every change is appended to the buffer
+ * of the partition of Sprites being executed instead, and the buffers are run
+ * in partition order once every Characteristic has executed. All
+ * Characteristics therefore see the game as it was at the start of the phase,
+ * whether the partitions ran on one thread or on many.
+ * 
+ * A Characteristic may read any Sprite while executing, but may only write to
+ * its own fields directly. Every change to a Sprite, its own included, must go
+ * through here: the Characteristics of one Sprite are executed in different
+ * partitions, possibly on other threads, and a Sprite's setters notify its
+ * listeners and the KinematicsStore, which may only happen on the simulation
+ * thread.
+ */
+public class ActionDispatcher {
+
+	private static final ThreadLocal<List<Runnable>> BUFFER = new ThreadLocal<List<Runnable>>();
+	private static final ThreadLocal<TimingWheel> TIMING_WHEEL = new ThreadLocal<TimingWheel>();
+
+	public static void dispatch(Action aAction) {
+		dispatch(() -> aAction.act());
+	}
+
+	public static void dispatch(Runnable aChange) {
+		List<Runnable> buffer = BUFFER.get();
+		if (buffer == null) {
+			aChange.run();
+		} else {
+			buffer.add(aChange);
+		}
+	}
+
+	/**
+	 * Runs aCallback aDelay ticks from now, on the TimingWheel of the Level
+	 * being updated. The timer is dispatched like any other change; outside of
+	 * an update there is no tick to wait for and aCallback runs right away.
+	 */
+	public static void schedule(long aDelay, Runnable aCallback) {
+		dispatch(() -> {
+			TimingWheel timingWheel = TIMING_WHEEL.get();
+			if (timingWheel == null) {
+				aCallback.run();
+			} else {
+				timingWheel.schedule(aDelay, aCallback);
+			}
+		});
+	}
+
+	/**
+	 * @return the TimingWheel of the Level being updated on the calling
+	 *         thread, or null outside of an update
+	 */
+	public static TimingWheel getTimingWheel() {
+		return TIMING_WHEEL.get();
+	}
+
+	/**
+	 * Sends every change dispatched from the calling thread to aBuffer until
+	 * {@link #unbind(List)} is called with the returned value.
+	 */
+	static List<Runnable> bind(List<Runnable> aBuffer) {
+		List<Runnable> previous = BUFFER.get();
+		BUFFER.set(aBuffer);
+		return previous;
+	}
+
+	static void unbind(List<Runnable> aPrevious) {
+		if (aPrevious == null) {
+			BUFFER.remove();
+		} else {
+			BUFFER.set(aPrevious);
+		}
+	}
+
+	/**
+	 * Schedules the timers dispatched from the calling thread on aTimingWheel
+	 * until {@link #unbindTimingWheel(TimingWheel)} is called with the returned
+	 * value.
+	 */
+	static TimingWheel bindTimingWheel(TimingWheel aTimingWheel) {
+		TimingWheel previous = TIMING_WHEEL.get();
+		TIMING_WHEEL.set(aTimingWheel);
+		return previous;
+	}
+
+	static void unbindTimingWheel(TimingWheel aPrevious) {
+		if (aPrevious == null) {
+			TIMING_WHEEL.remove();
+		} else {
+			TIMING_WHEEL.set(aPrevious);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package game_engine;
+
+import game_data.Sprite;
+
+/**
+ * Axis-aligned bounding box of a Sprite, computed from its Location, width and
+ * height. Boxes that only touch along an edge count as intersecting, the same
+ * as JavaFX Bounds, so a Sprite standing exactly on top of a block still
+ * collides with it.
+ */
+public class BoundingBox {
+
+	private double myMinX, myMinY, myMaxX, myMaxY;
+
+	public BoundingBox() {
+	}
+
+	public BoundingBox(Sprite aSprite) {
+		setBounds(aSprite);
+	}
+
+	public void setBounds(Sprite aSprite) {
+		setBounds(aSprite.getLocation().getXLocation(), aSprite.getLocation().getYLocation(), aSprite.getWidth(),
+				aSprite.getHeight());
+	}
+
+	public void setBounds(double aX, double aY, double aWidth, double aHeight) {
+		myMinX = aX;
+		myMinY = aY;
+		myMaxX = aX + aWidth;
+		myMaxY = aY + aHeight;
+	}
+
+	public void setBounds(BoundingBox aOther) {
+		myMinX = aOther.myMinX;
+		myMinY = aOther.myMinY;
+		myMaxX = aOther.myMaxX;
+		myMaxY = aOther.myMaxY;
+	}
+
+	public boolean intersects(BoundingBox aOther) {
+		return aOther.myMinX <= myMaxX && aOther.myMaxX >= myMinX && aOther.myMinY <= myMaxY
+				&& aOther.myMaxY >= myMinY;
+	}
+
+	public double getMinX() {
+		return myMinX;
+	}
+
+	public double getMinY() {
+		return myMinY;
+	}
+
+	public double getMaxX() {
+		return myMaxX;
+	}
+
+	public double getMaxY() {
+		return myMaxY;
+	}
+}
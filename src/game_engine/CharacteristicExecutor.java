@@ -0,0 +1,93 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import game_engine.CharacteristicRegistry.Entry;
+
+/**
+ * Executes the registered Characteristics of a Level in two phases. The
+ * Characteristics are split into fixed-size partitions; every one of a
+ * partition is executed with its changes going to that partition's buffer (see
+ * ActionDispatcher), then all buffers are run one after another in partition
+ * order. Partitions may be executed in parallel on a ForkJoinPool, and because
+ * the buffers are always merged in the same order the outcome is the same as
+ * executing them serially.
+ */
+class CharacteristicExecutor {
+
+	private static final int PARTITION_SIZE = (int) GameResources.CHARACTERISTIC_PARTITION_SIZE.getDoubleResource();
+
+	private boolean isParallel;
+
+	public CharacteristicExecutor(boolean aParallel) {
+		isParallel = aParallel;
+	}
+
+	public void execute(List<Entry> aEntries, CollisionTable aCollisions) {
+		int partitions = (aEntries.size() + PARTITION_SIZE - 1) / PARTITION_SIZE;
+		List<List<Runnable>> buffers = new ArrayList<List<Runnable>>(partitions);
+		for (int i = 0; i < partitions; i++) {
+			buffers.add(new ArrayList<Runnable>());
+		}
+		if (isParallel && partitions > 1) {
+			ForkJoinPool.commonPool().invoke(new PartitionTask(aEntries, aCollisions, buffers, 0, partitions));
+		} else {
+			for (int i = 0; i < partitions; i++) {
+				executePartition(aEntries, aCollisions, buffers, i);
+			}
+		}
+		for (List<Runnable> buffer : buffers) {
+			for (Runnable change : buffer) {
+				change.run();
+			}
+		}
+	}
+
+	private static void executePartition(List<Entry> aEntries, CollisionTable aCollisions, List<List<Runnable>> aBuffers,
+			int aPartition) {
+		int end = Math.min(aEntries.size(), (aPartition + 1) * PARTITION_SIZE);
+		List<Runnable> previous = ActionDispatcher.bind(aBuffers.get(aPartition));
+		try {
+			for (int i = aPartition * PARTITION_SIZE; i < end; i++) {
+				Entry entry = aEntries.get(i);
+				if (KinematicsStore.isFrozen(entry.getSprite())) {
+					continue;
+				}
+				entry.getCharacteristic().execute(aCollisions.getCollisions(entry.getSprite()));
+			}
+		} finally {
+			ActionDispatcher.unbind(previous);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class PartitionTask extends RecursiveAction {
+		private List<Entry> myEntries;
+		private CollisionTable myCollisions;
+		private List<List<Runnable>> myBuffers;
+		private int myFirst, myEnd;
+
+		private PartitionTask(List<Entry> aEntries, CollisionTable aCollisions, List<List<Runnable>> aBuffers,
+				int aFirst, int aEnd) {
+			myEntries = aEntries;
+			myCollisions = aCollisions;
+			myBuffers = aBuffers;
+			myFirst = aFirst;
+			myEnd = aEnd;
+		}
+
+		@Override
+		protected void compute() {
+			if (myEnd - myFirst == 1) {
+				executePartition(myEntries, myCollisions, myBuffers, myFirst);
+				return;
+			}
+			int middle = (myFirst + myEnd) >>> 1;
+			invokeAll(new PartitionTask(myEntries, myCollisions, myBuffers, myFirst, middle),
+					new PartitionTask(myEntries, myCollisions, myBuffers, middle, myEnd));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game_data.Sprite;
+import game_data.characteristics.Characteristic;
+
+/**
+ * Level-wide registry of the Characteristics of its Sprites, one list per
+ * Characteristic class. The tick iterates {@link #getEntries()} instead of
+ * every Sprite, so Sprites without Characteristics (most Terrain) cost
+ * nothing.
+ *
+ * Sprites are kept registered by Level.addNewSprite and removeSprite and by
+ * Sprite.addCharacteristic and removeCharacteristic.
+ */
+public class CharacteristicRegistry {
+
+	private Map<Class<?>, List<Entry>> myEntriesByType;
+	private List<Entry> myEntries;
+
+	public CharacteristicRegistry() {
+		myEntriesByType = new LinkedHashMap<Class<?>, List<Entry>>();
+	}
+
+	/**
+	 * Registers every given Sprite that is not registered with this registry
+	 * yet.
+	 */
+	public void update(Collection<Sprite> aSprites) {
+		for (Sprite sprite : aSprites) {
+			if (sprite.getCharacteristicRegistry() != this) {
+				add(sprite);
+			}
+		}
+	}
+
+	public void add(Sprite aSprite) {
+		if (aSprite.getCharacteristicRegistry() != null) {
+			aSprite.getCharacteristicRegistry().remove(aSprite);
+		}
+		aSprite.bindCharacteristicRegistry(this);
+		if (aSprite.getCharacteristics() != null) {
+			for (Characteristic characteristic : aSprite.getCharacteristics()) {
+				add(aSprite, characteristic);
+			}
+		}
+	}
+
+	public void remove(Sprite aSprite) {
+		if (aSprite.getCharacteristicRegistry() != this) {
+			return;
+		}
+		aSprite.bindCharacteristicRegistry(null);
+		if (aSprite.getCharacteristics() != null) {
+			for (Characteristic characteristic : aSprite.getCharacteristics()) {
+				remove(aSprite, characteristic);
+			}
+		}
+	}
+
+	public void add(Sprite aSprite, Characteristic aCharacteristic) {
+		List<Entry> entries = myEntriesByType.get(aCharacteristic.getClass());
+		if (entries == null) {
+			entries = new ArrayList<Entry>();
+			myEntriesByType.put(aCharacteristic.getClass(), entries);
+		}
+		entries.add(new Entry(aSprite, aCharacteristic));
+		myEntries = null;
+	}
+
+	public void remove(Sprite aSprite, Characteristic aCharacteristic) {
+		List<Entry> entries = myEntriesByType.get(aCharacteristic.getClass());
+		if (entries == null) {
+			return;
+		}
+		for (int i = 0; i < entries.size(); i++) {
+			if (entries.get(i).myCharacteristic == aCharacteristic) {
+				entries.remove(i);
+				myEntries = null;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return every registered Characteristic, grouped by class in the order
+	 *         the classes were first registered. The list is not changed
+	 *         afterwards, later registrations produce a new one.
+	 */
+	public List<Entry> getEntries() {
+		if (myEntries == null) {
+			List<Entry> entries = new ArrayList<Entry>();
+			for (List<Entry> typeEntries : myEntriesByType.values()) {
+				entries.addAll(typeEntries);
+			}
+			myEntries = Collections.unmodifiableList(entries);
+		}
+		return myEntries;
+	}
+
+	/**
+	 * @param aType - exact class of the wanted Characteristics
+	 * @return the registered Characteristics of that class
+	 */
+	public List<Entry> getEntries(Class<? extends Characteristic> aType) {
+		List<Entry> entries = myEntriesByType.get(aType);
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(entries);
+	}
+
+	public int size() {
+		return getEntries().size();
+	}
+
+	/**
+	 * A registered Characteristic together with the Sprite it belongs to,
+	 * whose collisions it is executed with.
+	 */
+	public static class Entry {
+		private final Sprite mySprite;
+		private final Characteristic myCharacteristic;
+
+		private Entry(Sprite aSprite, Characteristic aCharacteristic) {
+			mySprite = aSprite;
+			myCharacteristic = aCharacteristic;
+		}
+
+		public Sprite getSprite() {
+			return mySprite;
+		}
+
+		public Characteristic getCharacteristic() {
+			return myCharacteristic;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game_data.Sprite;
+
+/**
+ * Result of the single collision pass run at the start of a tick, tested
+ * against the BoundingBoxes the broadphase captured for that tick. For every
+ * Sprite it holds the read-only map of Sprites it collided with and the Side of
+ * each collision, which is what both Controllable and Characteristic consume.
+ *
+ * Pushing Sprites out of Terrain is recorded while the table is built instead
+ * of being applied on the spot, and only happens when
+ * {@link #applyPositionCorrections()} is called. Every collision Side is
+ * therefore computed from the positions at the start of the tick, no matter in
+ * which order the Sprites were visited.
+ */
+public class CollisionTable {
+
+	private Map<Sprite, Map<Sprite, Side>> myCollisions;
+	private Map<Sprite, PositionCorrection> myCorrections;
+	private int myPairTests;
+
+	public CollisionTable(List<Sprite> aSprites, SpatialGrid aBroadphase) {
+		myCollisions = new LinkedHashMap<Sprite, Map<Sprite, Side>>();
+		myCorrections = new LinkedHashMap<Sprite, PositionCorrection>();
+		List<Sprite> woken = new ArrayList<Sprite>();
+		for (Sprite sprite : aSprites) {
+			if (!KinematicsStore.isSuspended(sprite)) {
+				addCollisions(sprite, aBroadphase, woken);
+			}
+		}
+		for (int i = 0; i < woken.size(); i++) {
+			if (!myCollisions.containsKey(woken.get(i))) {
+				addCollisions(woken.get(i), aBroadphase, woken);
+			}
+		}
+	}
+
+	/**
+	 * @param aSprite - Sprite whose collisions are wanted
+	 * @return unmodifiable map of every Sprite aSprite collided with this tick
+	 *         to the Side of the collision
+	 */
+	public Map<Sprite, Side> getCollisions(Sprite aSprite) {
+		Map<Sprite, Side> collisions = myCollisions.get(aSprite);
+		if (collisions == null) {
+			return Collections.emptyMap();
+		}
+		return collisions;
+	}
+
+	/**
+	 * @return number of Sprite pairs whose bounds were tested
+	 */
+	public int getPairTests() {
+		return myPairTests;
+	}
+
+	/**
+	 * Moves every Sprite that was found overlapping Terrain out of it. When a
+	 * Sprite overlaps several Terrain pieces in the same direction (e.g. a row
+	 * of floor blocks) only the deepest push is applied, not their sum.
+	 */
+	public void applyPositionCorrections() {
+		for (Map.Entry<Sprite, PositionCorrection> entry : myCorrections.entrySet()) {
+			entry.getValue().apply(entry.getKey());
+		}
+		myCorrections.clear();
+	}
+
+	/**
+	 * Sleeping and frozen Sprites are not tested as the source of a collision,
+	 * so a moving Sprite that touches one has it tested too, waking it if it
+	 * was asleep. Touching
+	 * a moving Sprite also keeps aSprite from falling asleep.
+	 */
+	private void addCollisions(Sprite aSprite, SpatialGrid aBroadphase, List<Sprite> aWoken) {
+		ListOfCollidingSprites collidingSprites = new ListOfCollidingSprites(aSprite, aBroadphase, this);
+		Map<Sprite, Side> collisions = collidingSprites.getCollisionSpriteMap();
+		myPairTests += collidingSprites.getPairTests();
+		myCollisions.put(aSprite, Collections.unmodifiableMap(collisions));
+		boolean isMoving = KinematicsStore.isMoving(aSprite);
+		for (Sprite other : collisions.keySet()) {
+			if (isMoving && KinematicsStore.isSuspended(other) && !aWoken.contains(other)) {
+				other.getKinematics().wake(other);
+				aWoken.add(other);
+			}
+			if (aSprite.getKinematics() != null && KinematicsStore.isMoving(other)) {
+				aSprite.getKinematics().wake(aSprite);
+			}
+		}
+	}
+
+	void pushUp(Sprite aSprite, double aDistance) {
+		PositionCorrection correction = getCorrection(aSprite);
+		correction.up = Math.max(correction.up, aDistance);
+	}
+
+	void pushDown(Sprite aSprite, double aDistance) {
+		PositionCorrection correction = getCorrection(aSprite);
+		correction.down = Math.max(correction.down, aDistance);
+	}
+
+	void pushLeft(Sprite aSprite, double aDistance) {
+		PositionCorrection correction = getCorrection(aSprite);
+		correction.left = Math.max(correction.left, aDistance);
+	}
+
+	void pushRight(Sprite aSprite, double aDistance) {
+		PositionCorrection correction = getCorrection(aSprite);
+		correction.right = Math.max(correction.right, aDistance);
+	}
+
+	private PositionCorrection getCorrection(Sprite aSprite) {
+		PositionCorrection correction = myCorrections.get(aSprite);
+		if (correction == null) {
+			correction = new PositionCorrection();
+			myCorrections.put(aSprite, correction);
+		}
+		return correction;
+	}
+
+	private static class PositionCorrection {
+		private double up, down, left, right;
+
+		private void apply(Sprite aSprite) {
+			double x = aSprite.getLocation().getXLocation() - left + right;
+			double y = aSprite.getLocation().getYLocation() - up + down;
+			aSprite.setLocation(x, y);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package game_engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How long each phase of the recent ticks took and how much work they did,
+ * so a stutter can be traced to the phase that used up the frame. Written by
+ * the engine once per tick and safe to read from any thread.
+ */
+public class EngineMetrics {
+
+	/**
+	 * Phases of UpdateStates.update, in the order they run, and the tick as a
+	 * whole. Their histograms hold nanoseconds.
+	 */
+	public enum Phase {
+		SET_LEVEL, FREEZE_OUTSIDE_SCREEN, ACTIVATE_POWER_UPS, FIRE_TIMERS, DETECT_COLLISIONS, EXECUTE_CONTROLS,
+		EXECUTE_CHARACTERISTICS, CLEAN_GAME, UPDATE_POSITIONS, MOVE_RANDOM_SPRITES, CHECK_WIN_AND_LOSS, TICK;
+	}
+
+	/**
+	 * Work done per tick.
+	 */
+	public enum Counter {
+		COLLISION_PAIR_TESTS, SIMULATED_SPRITES, SPAWNED_SPRITES, FIRED_TIMERS;
+	}
+
+	private final Map<Phase, RollingHistogram> myPhases;
+	private final Map<Counter, RollingHistogram> myCounters;
+
+	public EngineMetrics() {
+		this((int) GameResources.METRICS_WINDOW.getDoubleResource());
+	}
+
+	/**
+	 * @param aWindow - number of most recent ticks kept
+	 */
+	public EngineMetrics(int aWindow) {
+		myPhases = new EnumMap<Phase, RollingHistogram>(Phase.class);
+		for (Phase phase : Phase.values()) {
+			myPhases.put(phase, new RollingHistogram(aWindow));
+		}
+		myCounters = new EnumMap<Counter, RollingHistogram>(Counter.class);
+		for (Counter counter : Counter.values()) {
+			myCounters.put(counter, new RollingHistogram(aWindow));
+		}
+	}
+
+	public void record(Phase aPhase, long aNanoseconds) {
+		myPhases.get(aPhase).record(aNanoseconds);
+	}
+
+	public void record(Counter aCounter, long aCount) {
+		myCounters.get(aCounter).record(aCount);
+	}
+
+	/**
+	 * @return nanoseconds aPhase took in each of the recent ticks
+	 */
+	public RollingHistogram getHistogram(Phase aPhase) {
+		return myPhases.get(aPhase);
+	}
+
+	/**
+	 * @return the value of aCounter in each of the recent ticks
+	 */
+	public RollingHistogram getHistogram(Counter aCounter) {
+		return myCounters.get(aCounter);
+	}
+
+	/**
+	 * @return milliseconds aPhase took in aPercentile percent of the recent
+	 *         ticks or less
+	 */
+	public double getPercentileMillis(Phase aPhase, double aPercentile) {
+		return getHistogram(aPhase).getPercentile(aPercentile) / 1e6;
+	}
+
+	public void clear() {
+		for (RollingHistogram histogram : myPhases.values()) {
+			histogram.clear();
+		}
+		for (RollingHistogram histogram : myCounters.values()) {
+			histogram.clear();
+		}
+	}
+
+	/**
+	 * @return one line per phase and counter with its median, 99th percentile
+	 *         and maximum over the recent ticks
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		for (Phase phase : Phase.values()) {
+			report.append(String.format("%-24s p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms%n", phase,
+					getPercentileMillis(phase, 50), getPercentileMillis(phase, 99),
+					getHistogram(phase).getMax() / 1e6));
+		}
+		for (Counter counter : Counter.values()) {
+			RollingHistogram histogram = getHistogram(counter);
+			report.append(String.format("%-24s p50 %8d     p99 %8d     max %8d%n", counter,
+					histogram.getPercentile(50), histogram.getPercentile(99), histogram.getMax()));
+		}
+		return report.toString();
+	}
+}
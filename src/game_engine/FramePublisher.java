@@ -0,0 +1,107 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import game_data.Game;
+import game_data.Sprite;
+import game_data.sprites.Player;
+import game_data.states.Visible;
+import game_engine.actions.Action;
+import javafx.scene.input.KeyCode;
+
+/**
+ * Hands the state of a Game from the simulation thread to the display. The
+ * simulation thread calls {@link #recordPreviousLocations()} before a tick and
+ * {@link #publish()} after it; the display only ever calls
+ * {@link #getLatest()}, which never blocks and always returns a complete
+ * FrameSnapshot.
+ */
+public class FramePublisher {
+
+	private Game myGame;
+	private UpdateGame myGameUpdater;
+	private AtomicReference<FrameSnapshot> myLatest;
+	private Map<Sprite, double[]> myPreviousLocations;
+	private Player myKeyMapOwner;
+	private Map<KeyCode, Action> myKeyPressedMap;
+	private long myTick;
+
+	/**
+	 * @param aGameUpdater - runs aGame, and tells which images its next Level
+	 *            needs
+	 */
+	public FramePublisher(Game aGame, UpdateGame aGameUpdater) {
+		myGame = aGame;
+		myGameUpdater = aGameUpdater;
+		myLatest = new AtomicReference<FrameSnapshot>();
+		myPreviousLocations = new IdentityHashMap<Sprite, double[]>();
+		myTick = 0;
+	}
+
+	/**
+	 * Remembers where every Sprite of the current Level is, so the next
+	 * snapshot can be drawn anywhere between the two locations.
+	 */
+	public void recordPreviousLocations() {
+		List<Sprite> sprites = myGame.getCurrentLevel().getMySpriteList();
+		if (myPreviousLocations.size() > sprites.size()) {
+			myPreviousLocations.clear();
+		}
+		for (Sprite sprite : sprites) {
+			double[] previous = myPreviousLocations.get(sprite);
+			if (previous == null) {
+				previous = new double[3];
+				myPreviousLocations.put(sprite, previous);
+			}
+			previous[0] = sprite.getLocation().getXLocation();
+			previous[1] = sprite.getLocation().getYLocation();
+			previous[2] = myTick;
+		}
+	}
+
+	public void publish() {
+		List<Sprite> sprites = myGame.getCurrentLevel().getMySpriteList();
+		List<SpriteFrame> frames = new ArrayList<SpriteFrame>(sprites.size());
+		for (Sprite sprite : sprites) {
+			double[] previous = myPreviousLocations.get(sprite);
+			if (previous != null && previous[2] != myTick) {
+				// recorded before the Sprite was removed, e.g. a reused projectile
+				previous = null;
+			}
+			double previousX = previous == null ? sprite.getLocation().getXLocation() : previous[0];
+			double previousY = previous == null ? sprite.getLocation().getYLocation() : previous[1];
+			frames.add(new SpriteFrame(sprite, previousX, previousY, isVisible(sprite)));
+		}
+		myLatest.set(new FrameSnapshot(myTick++, Collections.unmodifiableList(frames), myGame, getKeyPressedMap(),
+				myGameUpdater));
+	}
+
+	/**
+	 * @return the most recently published snapshot, or null if nothing was
+	 *         published yet
+	 */
+	public FrameSnapshot getLatest() {
+		return myLatest.get();
+	}
+
+	private boolean isVisible(Sprite aSprite) {
+		Visible visible = aSprite.getState(Visible.class);
+		return visible == null || visible.isVisible();
+	}
+
+	private Map<KeyCode, Action> getKeyPressedMap() {
+		Player player = myGame.getCurrentLevel().getMainPlayer();
+		if (player != myKeyMapOwner) {
+			myKeyMapOwner = player;
+			myKeyPressedMap = Collections.unmodifiableMap(
+					new HashMap<KeyCode, Action>(player.getControllable().getMyKeyPressedMap()));
+		}
+		return myKeyPressedMap;
+	}
+}
@@ -0,0 +1,139 @@
+package game_engine;
+
+import java.util.List;
+import java.util.Map;
+
+import game_data.Game;
+import game_data.ScrollType;
+import game_data.sprites.Player;
+import game_data.states.Health;
+import game_data.states.ScreenRatio;
+import game_data.states.Score;
+import game_engine.actions.Action;
+import javafx.scene.input.KeyCode;
+
+/**
+ * Immutable state of a Game at the end of a tick: every Sprite to draw, the
+ * values shown in the heads up display and what the camera follows. It is
+ * published by the simulation thread and read by the display, so nothing in
+ * it may change after construction.
+ */
+public class FrameSnapshot {
+
+	private final long myTick;
+	private final List<SpriteFrame> mySprites;
+	private final int myLevelNumber;
+	private final String myBackgroundImageFilePath;
+	private final Integer myHealth;
+	private final Double myScore;
+	private final double myPlayerX, myPlayerY;
+	private final double myScreenRatioTop, myScreenRatioBottom;
+	private final ScrollType myScrollType;
+	private final Map<KeyCode, Action> myKeyPressedMap;
+	private final boolean hasWon, hasLost;
+	private final List<String> myNextLevelImagePaths;
+	private final String myNextLevelBackgroundImageFilePath;
+
+	FrameSnapshot(long aTick, List<SpriteFrame> aSprites, Game aGame, Map<KeyCode, Action> aKeyPressedMap,
+			UpdateGame aGameUpdater) {
+		Player player = aGame.getCurrentLevel().getMainPlayer();
+		Health health = player.getState(Health.class);
+		Score score = player.getState(Score.class);
+		ScreenRatio screenRatio = player.getState(ScreenRatio.class);
+		myTick = aTick;
+		mySprites = aSprites;
+		myLevelNumber = aGame.getLevelNumber();
+		myBackgroundImageFilePath = aGame.getCurrentLevel().getBackgroundImageFilePath();
+		myHealth = health == null ? null : health.getHealth();
+		myScore = score == null ? null : score.getMyScore();
+		myPlayerX = player.getLocation().getXLocation();
+		myPlayerY = player.getLocation().getYLocation();
+		myScreenRatioTop = screenRatio == null ? .5 : screenRatio.getTopRatio();
+		myScreenRatioBottom = screenRatio == null ? .5 : screenRatio.getBottomRatio();
+		myScrollType = aGame.getScrollType();
+		myKeyPressedMap = aKeyPressedMap;
+		hasWon = aGame.hasWon();
+		hasLost = aGame.hasLost();
+		myNextLevelImagePaths = aGameUpdater.getNextLevelImagePaths();
+		myNextLevelBackgroundImageFilePath = aGameUpdater.getNextLevelBackgroundImageFilePath();
+	}
+
+	public long getTick() {
+		return myTick;
+	}
+
+	public List<SpriteFrame> getSprites() {
+		return mySprites;
+	}
+
+	public int getLevelNumber() {
+		return myLevelNumber;
+	}
+
+	public String getBackgroundImageFilePath() {
+		return myBackgroundImageFilePath;
+	}
+
+	/**
+	 * @return the main player's health, or null if it has none
+	 */
+	public Integer getHealth() {
+		return myHealth;
+	}
+
+	/**
+	 * @return the main player's score, or null if it has none
+	 */
+	public Double getScore() {
+		return myScore;
+	}
+
+	public double getPlayerX() {
+		return myPlayerX;
+	}
+
+	public double getPlayerY() {
+		return myPlayerY;
+	}
+
+	public double getScreenRatioTop() {
+		return myScreenRatioTop;
+	}
+
+	public double getScreenRatioBottom() {
+		return myScreenRatioBottom;
+	}
+
+	public ScrollType getScrollType() {
+		return myScrollType;
+	}
+
+	/**
+	 * @return read-only copy of the main player's key bindings
+	 */
+	public Map<KeyCode, Action> getKeyPressedMap() {
+		return myKeyPressedMap;
+	}
+
+	public boolean hasWon() {
+		return hasWon;
+	}
+
+	public boolean hasLost() {
+		return hasLost;
+	}
+
+	/**
+	 * @return read-only list of the images of the Level after this one
+	 */
+	public List<String> getNextLevelImagePaths() {
+		return myNextLevelImagePaths;
+	}
+
+	/**
+	 * @return background of the Level after this one, or null
+	 */
+	public String getNextLevelBackgroundImageFilePath() {
+		return myNextLevelBackgroundImageFilePath;
+	}
+}
@@ -1,13 +1,21 @@
 package game_engine;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Set;
 
 import game_data.Game;
-import util.XMLTranslator;
+import game_engine.replay.InputRecorder;
+import game_engine.replay.InputReplayer;
+import javafx.scene.input.KeyCode;
+import util.BinaryTranslator;
 
 public class GameEngine {
 	private Game myGame;
 	private EnginePlayerController myEnginePlayerController;
+	private UpdateGame myGameUpdater;
 
 	// public GameEngine(IEngineReceiverControllerInterface myInterface) {
 	public GameEngine(File aFile) {
@@ -21,11 +29,99 @@ public class GameEngine {
 		myEnginePlayerController = new EnginePlayerController(myGame);
 	}
 
+	public GameEngine(Game aGame) {
+		myGame = aGame;
+		myEnginePlayerController = new EnginePlayerController(myGame);
+	}
+
+	/**
+	 * Loads aFile, or its binary form when that is current (see
+	 * BinaryTranslator).
+	 */
 	private void makeGameFromXML(File aFile) {
-		XMLTranslator myTranslator = new XMLTranslator();
+		BinaryTranslator myTranslator = new BinaryTranslator();
 		myGame = (Game) myTranslator.loadFromFile(aFile);
 	}
 
+	/**
+	 * Headless entry point: advances the game by one tick without needing a
+	 * display, e.g. to run or benchmark a simulation on a server.
+	 */
+	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased,
+			double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition) {
+		getGameUpdater().update(aTimeElapsed, aKeysPressed, aKeysReleased, aScreenHeight, aScreenWidth,
+				aScreenXPosition, aScreenYPosition);
+	}
+
+	/**
+	 * Starts writing the input of every following tick to aReplayFile. Start
+	 * recording before the first tick, a replay is played back from a freshly
+	 * loaded game.
+	 * 
+	 * @return the recorder, to be closed when the game ends
+	 */
+	public InputRecorder startRecording(File aReplayFile) throws IOException {
+		InputRecorder recorder = new InputRecorder(new FileOutputStream(aReplayFile), getLevelIndex());
+		getGameUpdater().setRecorder(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Headless replay: plays the input recorded in aReplayFile on this engine's
+	 * game, which has to be freshly loaded from the recorded game's file. No
+	 * listeners are invalidated while it plays.
+	 * 
+	 * @return number of ticks replayed
+	 */
+	public int replay(File aReplayFile) throws IOException {
+		try (InputReplayer replayer = new InputReplayer(new FileInputStream(aReplayFile))) {
+			if (replayer.getStartLevel() != getLevelIndex()) {
+				throw new IOException("Replay starts on level " + replayer.getStartLevel() + " but the game is on level "
+						+ getLevelIndex());
+			}
+			UpdateGame updater = getGameUpdater();
+			boolean wasNotifying = updater.isNotifying();
+			updater.setNotifying(false);
+			try {
+				return replayer.replay(updater);
+			} finally {
+				updater.setNotifying(wasNotifying);
+			}
+		}
+	}
+
+	private int getLevelIndex() {
+		return myGame.getLevels().indexOf(myGame.getCurrentLevel());
+	}
+
+	public UpdateGame getGameUpdater() {
+		return getGameUpdater(false);
+	}
+
+	/**
+	 * @param aParallelCharacteristics - whether Characteristics of large Levels
+	 *            are executed on several threads; only used the first time the
+	 *            updater is requested
+	 */
+	public UpdateGame getGameUpdater(boolean aParallelCharacteristics) {
+		if (myGameUpdater == null) {
+			myGameUpdater = new UpdateGame(myGame, aParallelCharacteristics);
+		}
+		return myGameUpdater;
+	}
+
+	/**
+	 * @return how long each phase of the recent ticks took and how much work
+	 *         they did
+	 */
+	public EngineMetrics getMetrics() {
+		return getGameUpdater().getMetrics();
+	}
+
+	public Game getGame() {
+		return myGame;
+	}
+
 	public EnginePlayerController getMyEnginePlayerController() {
 		return myEnginePlayerController;
 	}
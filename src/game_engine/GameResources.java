@@ -35,6 +35,30 @@ public enum GameResources {
 	FLASH_RATE(10),
 	TIME_FRAME(60),
 	
+	//side length in pixels of a broadphase cell
+	BROADPHASE_CELL_SIZE(128),
+	
+	//most simulation steps run for one rendered frame, and the longest frame in milliseconds the loop catches up on
+	MAX_STEPS_PER_FRAME(5), MAX_FRAME_TIME(250),
+	
+	//number of sprites whose characteristics are executed together as one task
+	CHARACTERISTIC_PARTITION_SIZE(64),
+	
+	//ticks a sprite has to rest, touching nothing that moves, before it is put to sleep
+	SLEEP_TICKS(60),
+	
+	//distance in pixels around the visible screen within which sprites are simulated
+	SIMULATION_MARGIN(800),
+	
+	//distance in pixels outside the level bounds beyond which a launched projectile is recycled
+	PROJECTILE_MARGIN(1000),
+	
+	//number of most recent ticks the engine metrics keep
+	METRICS_WINDOW(600),
+	
+	//ticks a breakable sprite cannot be hit again after a hit
+	UNBREAKABLE_TIME(20),
+	
 	//speed boost and bounce speed
 	SPEED_BOOST(300), BOUNCE_SPEED_HORIZONTAL(400), BOUNCE_SPEED_VERTICAL(800), RECOVERY_TIME(120);
 
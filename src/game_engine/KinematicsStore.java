@@ -0,0 +1,480 @@
+package game_engine;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import game_data.Location;
+import game_data.Sprite;
+import game_data.states.Physics;
+
+/**
+ * Level-wide store of the kinematic state of Sprites: location, velocity,
+ * acceleration, gravity and terminal velocity, each kept in a primitive column
+ * indexed by the Sprite's slot. While a Sprite is attached its getters and
+ * setters read and write the store, and {@link #integrate(double)} advances
+ * every attached Sprite in one pass over the columns without allocating.
+ *
+ * The Sprite's own fields are only brought up to date when it is detached or
+ * serialized, so an authored Level that the engine never ran is unaffected.
+ *
+ * A Sprite that neither moved nor touched a moving Sprite for SLEEP_TICKS
+ * ticks falls asleep: it is skipped by integration, by the broadphase update
+ * and as the source of collision tests. It wakes up as soon as a moving Sprite
+ * touches it, one of its values is changed, or it gains a State or
+ * Characteristic.
+ *
+ * Sprites outside the region given to {@link #freezeOutside} are frozen:
+ * skipped like sleeping ones, and their Characteristics are not executed.
+ */
+public class KinematicsStore {
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int SLEEP_TICKS = (int) GameResources.SLEEP_TICKS.getDoubleResource();
+
+	private int mySize;
+	private Sprite[] mySprites;
+	private SlotLocation[] myLocations;
+	private double[] myX, myY;
+	private double[] myStartX, myStartY;
+	private double[] myXVelocity, myYVelocity;
+	private double[] myXAcceleration, myYAcceleration;
+	private double[] myXGravity, myYGravity;
+	private double[] myTerminalXVelocity, myTerminalYVelocity;
+	private boolean[] hasPhysics;
+	private boolean[] hasChanged;
+	private int[] myRestTicks;
+	private boolean[] isMoving;
+	private boolean[] isAsleep;
+	private boolean[] isFrozen;
+
+	public KinematicsStore() {
+		mySize = 0;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Attaches every given Sprite that is not attached to this store yet.
+	 */
+	public void update(Collection<Sprite> aSprites) {
+		for (Sprite sprite : aSprites) {
+			if (sprite.getKinematics() != this) {
+				attach(sprite);
+			}
+		}
+	}
+
+	public void attach(Sprite aSprite) {
+		if (aSprite.getKinematics() != null) {
+			aSprite.getKinematics().detach(aSprite);
+		}
+		if (mySize == mySprites.length) {
+			allocate(mySize * 2);
+		}
+		int slot = mySize++;
+		Location location = aSprite.getLocation();
+		mySprites[slot] = aSprite;
+		myLocations[slot] = bindLocation(aSprite, slot);
+		myX[slot] = location == null ? 0 : location.getXLocation();
+		myY[slot] = location == null ? 0 : location.getYLocation();
+		myStartX[slot] = myX[slot];
+		myStartY[slot] = myY[slot];
+		myXVelocity[slot] = aSprite.getXVelocity();
+		myYVelocity[slot] = aSprite.getYVelocity();
+		myXAcceleration[slot] = aSprite.getXAcceleration();
+		myYAcceleration[slot] = aSprite.getYAcceleration();
+		myTerminalXVelocity[slot] = aSprite.getTerminalXVel();
+		myTerminalYVelocity[slot] = aSprite.getTerminalYVel();
+		hasChanged[slot] = false;
+		myRestTicks[slot] = 0;
+		isMoving[slot] = true;
+		isAsleep[slot] = false;
+		isFrozen[slot] = false;
+		aSprite.bindKinematics(this, slot);
+		refreshPhysics(aSprite);
+	}
+
+	/**
+	 * Rebinds the SlotLocation aSprite had in an earlier attachment, such as
+	 * a pooled projectile's, rather than constructing a new one.
+	 */
+	private SlotLocation bindLocation(Sprite aSprite, int aSlot) {
+		Location previous = aSprite.getKinematicsLocation();
+		if (previous instanceof SlotLocation && ((SlotLocation) previous).myStore == null) {
+			SlotLocation location = (SlotLocation) previous;
+			location.myStore = this;
+			location.mySlot = aSlot;
+			return location;
+		}
+		SlotLocation location = new SlotLocation(this, aSlot);
+		aSprite.setKinematicsLocation(location);
+		return location;
+	}
+
+	/**
+	 * Writes aSprite's values back into its own fields and frees its slot. The
+	 * last slot is moved into the hole, so slots stay dense.
+	 */
+	public void detach(Sprite aSprite) {
+		if (aSprite.getKinematics() != this) {
+			return;
+		}
+		int slot = aSprite.getKinematicsSlot();
+		aSprite.unbindKinematics();
+		myLocations[slot].unbind();
+		int last = --mySize;
+		if (slot != last) {
+			moveSlot(last, slot);
+		}
+		mySprites[last] = null;
+		myLocations[last] = null;
+	}
+
+	/**
+	 * Re-reads the gravity of aSprite's Physics State, e.g. after its States
+	 * changed. A Sprite without Physics is not accelerated.
+	 */
+	public void refreshPhysics(Sprite aSprite) {
+		int slot = aSprite.getKinematicsSlot();
+		Physics physics = aSprite.getState(Physics.class);
+		hasPhysics[slot] = physics != null;
+		myXGravity[slot] = physics == null ? 0 : physics.getHorizontalGravity();
+		myYGravity[slot] = physics == null ? 0 : physics.getVerticalGravity();
+		wake(slot);
+	}
+
+	/**
+	 * Keeps aSprite awake for at least another SLEEP_TICKS ticks.
+	 */
+	public void wake(Sprite aSprite) {
+		if (aSprite.getKinematics() == this) {
+			wake(aSprite.getKinematicsSlot());
+		}
+	}
+
+	public boolean isAsleep(int aSlot) {
+		return isAsleep[aSlot];
+	}
+
+	/**
+	 * @return whether the Sprite in aSlot moved in the last integration or had
+	 *         one of its values changed since
+	 */
+	public boolean isMoving(int aSlot) {
+		return isMoving[aSlot];
+	}
+
+	/**
+	 * Freezes every Sprite whose bounds lie entirely outside the given region
+	 * and unfreezes all others.
+	 * 
+	 * @return number of Sprites left unfrozen
+	 */
+	public int freezeOutside(double aMinX, double aMinY, double aMaxX, double aMaxY) {
+		int simulated = 0;
+		for (int i = 0; i < mySize; i++) {
+			Sprite sprite = mySprites[i];
+			isFrozen[i] = myX[i] > aMaxX || myX[i] + sprite.getWidth() < aMinX || myY[i] > aMaxY
+					|| myY[i] + sprite.getHeight() < aMinY;
+			if (!isFrozen[i]) {
+				simulated++;
+			}
+		}
+		return simulated;
+	}
+
+	public boolean isFrozen(int aSlot) {
+		return isFrozen[aSlot];
+	}
+
+	static boolean isFrozen(Sprite aSprite) {
+		KinematicsStore store = aSprite.getKinematics();
+		return store != null && store.isFrozen(aSprite.getKinematicsSlot());
+	}
+
+	/**
+	 * @return whether aSprite is asleep or frozen
+	 */
+	static boolean isSuspended(Sprite aSprite) {
+		KinematicsStore store = aSprite.getKinematics();
+		return store != null && (store.isAsleep(aSprite.getKinematicsSlot()) || store.isFrozen(aSprite.getKinematicsSlot()));
+	}
+
+	static boolean isMoving(Sprite aSprite) {
+		KinematicsStore store = aSprite.getKinematics();
+		return store == null || store.isMoving(aSprite.getKinematicsSlot());
+	}
+
+	/**
+	 * Advances every attached Sprite by aTimeElapsed: gravity and acceleration
+	 * are added to the velocity, which is capped at the terminal velocity, the
+	 * location is moved and the acceleration is reset, exactly as
+	 * UpdateLocation does for a single Sprite.
+	 */
+	public void integrate(double aTimeElapsed) {
+		for (int i = 0; i < mySize; i++) {
+			myStartX[i] = myX[i];
+			myStartY[i] = myY[i];
+			if (isAsleep[i] || isFrozen[i]) {
+				hasChanged[i] = false;
+				continue;
+			}
+			double xVelocity = myXVelocity[i];
+			double yVelocity = myYVelocity[i];
+			double xPull = myXGravity[i] + myXAcceleration[i];
+			double yPull = myYGravity[i] + myYAcceleration[i];
+			boolean changed = false;
+			if (hasPhysics[i]) {
+				double newXVelocity = xVelocity + xPull * aTimeElapsed;
+				double newYVelocity = yVelocity + yPull * aTimeElapsed;
+				if (xVelocity != newXVelocity) {
+					xVelocity = cap(newXVelocity, myTerminalXVelocity[i]);
+					changed = true;
+				}
+				if (yVelocity != newYVelocity) {
+					yVelocity = cap(newYVelocity, myTerminalYVelocity[i]);
+					changed = true;
+				}
+				myXVelocity[i] = xVelocity;
+				myYVelocity[i] = yVelocity;
+				//the location uses the updated velocity plus the pull once more
+				xVelocity += xPull * aTimeElapsed;
+				yVelocity += yPull * aTimeElapsed;
+			}
+			double x = myX[i] + xVelocity * aTimeElapsed;
+			double y = myY[i] + yVelocity * aTimeElapsed;
+			changed |= x != myX[i] || y != myY[i];
+			myX[i] = x;
+			myY[i] = y;
+			myXAcceleration[i] = 0;
+			myYAcceleration[i] = 0;
+			hasChanged[i] = changed;
+			isMoving[i] = changed || myXVelocity[i] != 0 || myYVelocity[i] != 0;
+			myRestTicks[i] = isMoving[i] ? 0 : myRestTicks[i] + 1;
+			isAsleep[i] = myRestTicks[i] >= SLEEP_TICKS;
+		}
+		for (int i = 0; i < mySize; i++) {
+			if (hasChanged[i]) {
+				mySprites[i].kinematicsChanged();
+			}
+		}
+	}
+
+	public int size() {
+		return mySize;
+	}
+
+	public Sprite getSprite(int aSlot) {
+		return mySprites[aSlot];
+	}
+
+	/**
+	 * @return whether the last integration moved the Sprite in aSlot or
+	 *         changed its velocity
+	 */
+	public boolean hasChanged(int aSlot) {
+		return hasChanged[aSlot];
+	}
+
+	/**
+	 * @return x coordinate of the Sprite in aSlot before the last integration
+	 */
+	public double getStartX(int aSlot) {
+		return myStartX[aSlot];
+	}
+
+	/**
+	 * @return y coordinate of the Sprite in aSlot before the last integration
+	 */
+	public double getStartY(int aSlot) {
+		return myStartY[aSlot];
+	}
+
+	public Location getLocation(int aSlot) {
+		return myLocations[aSlot];
+	}
+
+	public void setLocation(int aSlot, double aX, double aY) {
+		if (myX[aSlot] != aX || myY[aSlot] != aY) {
+			myX[aSlot] = aX;
+			myY[aSlot] = aY;
+			disturb(aSlot);
+		}
+	}
+
+	public double getXVelocity(int aSlot) {
+		return myXVelocity[aSlot];
+	}
+
+	public void setXVelocity(int aSlot, double aVelocity) {
+		if (myXVelocity[aSlot] != aVelocity) {
+			myXVelocity[aSlot] = aVelocity;
+			disturb(aSlot);
+		}
+	}
+
+	public double getYVelocity(int aSlot) {
+		return myYVelocity[aSlot];
+	}
+
+	public void setYVelocity(int aSlot, double aVelocity) {
+		if (myYVelocity[aSlot] != aVelocity) {
+			myYVelocity[aSlot] = aVelocity;
+			disturb(aSlot);
+		}
+	}
+
+	public double getXAcceleration(int aSlot) {
+		return myXAcceleration[aSlot];
+	}
+
+	public void setXAcceleration(int aSlot, double aAcceleration) {
+		if (myXAcceleration[aSlot] != aAcceleration) {
+			myXAcceleration[aSlot] = aAcceleration;
+			disturb(aSlot);
+		}
+	}
+
+	public double getYAcceleration(int aSlot) {
+		return myYAcceleration[aSlot];
+	}
+
+	public void setYAcceleration(int aSlot, double aAcceleration) {
+		if (myYAcceleration[aSlot] != aAcceleration) {
+			myYAcceleration[aSlot] = aAcceleration;
+			disturb(aSlot);
+		}
+	}
+
+	public double getTerminalXVelocity(int aSlot) {
+		return myTerminalXVelocity[aSlot];
+	}
+
+	public void setTerminalXVelocity(int aSlot, double aVelocity) {
+		if (myTerminalXVelocity[aSlot] != aVelocity) {
+			myTerminalXVelocity[aSlot] = aVelocity;
+			disturb(aSlot);
+		}
+	}
+
+	public double getTerminalYVelocity(int aSlot) {
+		return myTerminalYVelocity[aSlot];
+	}
+
+	public void setTerminalYVelocity(int aSlot, double aVelocity) {
+		if (myTerminalYVelocity[aSlot] != aVelocity) {
+			myTerminalYVelocity[aSlot] = aVelocity;
+			disturb(aSlot);
+		}
+	}
+
+	private void wake(int aSlot) {
+		myRestTicks[aSlot] = 0;
+		isAsleep[aSlot] = false;
+	}
+
+	private void disturb(int aSlot) {
+		wake(aSlot);
+		isMoving[aSlot] = true;
+	}
+
+	private double cap(double aVelocity, double aTerminalVelocity) {
+		if (Math.abs(aVelocity) > aTerminalVelocity) {
+			return (aVelocity / Math.abs(aVelocity)) * aTerminalVelocity;
+		}
+		return aVelocity;
+	}
+
+	private void moveSlot(int aFrom, int aTo) {
+		mySprites[aTo] = mySprites[aFrom];
+		myLocations[aTo] = myLocations[aFrom];
+		myLocations[aTo].mySlot = aTo;
+		myX[aTo] = myX[aFrom];
+		myY[aTo] = myY[aFrom];
+		myStartX[aTo] = myStartX[aFrom];
+		myStartY[aTo] = myStartY[aFrom];
+		myXVelocity[aTo] = myXVelocity[aFrom];
+		myYVelocity[aTo] = myYVelocity[aFrom];
+		myXAcceleration[aTo] = myXAcceleration[aFrom];
+		myYAcceleration[aTo] = myYAcceleration[aFrom];
+		myXGravity[aTo] = myXGravity[aFrom];
+		myYGravity[aTo] = myYGravity[aFrom];
+		myTerminalXVelocity[aTo] = myTerminalXVelocity[aFrom];
+		myTerminalYVelocity[aTo] = myTerminalYVelocity[aFrom];
+		hasPhysics[aTo] = hasPhysics[aFrom];
+		hasChanged[aTo] = hasChanged[aFrom];
+		myRestTicks[aTo] = myRestTicks[aFrom];
+		isMoving[aTo] = isMoving[aFrom];
+		isAsleep[aTo] = isAsleep[aFrom];
+		isFrozen[aTo] = isFrozen[aFrom];
+		mySprites[aTo].bindKinematics(this, aTo);
+	}
+
+	private void allocate(int aCapacity) {
+		mySprites = mySprites == null ? new Sprite[aCapacity] : Arrays.copyOf(mySprites, aCapacity);
+		myLocations = myLocations == null ? new SlotLocation[aCapacity] : Arrays.copyOf(myLocations, aCapacity);
+		myX = grow(myX, aCapacity);
+		myY = grow(myY, aCapacity);
+		myStartX = grow(myStartX, aCapacity);
+		myStartY = grow(myStartY, aCapacity);
+		myXVelocity = grow(myXVelocity, aCapacity);
+		myYVelocity = grow(myYVelocity, aCapacity);
+		myXAcceleration = grow(myXAcceleration, aCapacity);
+		myYAcceleration = grow(myYAcceleration, aCapacity);
+		myXGravity = grow(myXGravity, aCapacity);
+		myYGravity = grow(myYGravity, aCapacity);
+		myTerminalXVelocity = grow(myTerminalXVelocity, aCapacity);
+		myTerminalYVelocity = grow(myTerminalYVelocity, aCapacity);
+		hasPhysics = hasPhysics == null ? new boolean[aCapacity] : Arrays.copyOf(hasPhysics, aCapacity);
+		hasChanged = hasChanged == null ? new boolean[aCapacity] : Arrays.copyOf(hasChanged, aCapacity);
+		myRestTicks = myRestTicks == null ? new int[aCapacity] : Arrays.copyOf(myRestTicks, aCapacity);
+		isMoving = isMoving == null ? new boolean[aCapacity] : Arrays.copyOf(isMoving, aCapacity);
+		isAsleep = isAsleep == null ? new boolean[aCapacity] : Arrays.copyOf(isAsleep, aCapacity);
+		isFrozen = isFrozen == null ? new boolean[aCapacity] : Arrays.copyOf(isFrozen, aCapacity);
+	}
+
+	private double[] grow(double[] aColumn, int aCapacity) {
+		return aColumn == null ? new double[aCapacity] : Arrays.copyOf(aColumn, aCapacity);
+	}
+
+	/**
+	 * Location that reads and writes a slot of the store, so code that moves a
+	 * Sprite through getLocation().setLocation(x, y) keeps working. Once its
+	 * Sprite is detached it keeps the last values like a plain Location.
+	 */
+	private static class SlotLocation extends Location {
+		private KinematicsStore myStore;
+		private int mySlot;
+
+		private SlotLocation(KinematicsStore aStore, int aSlot) {
+			super(0, 0);
+			myStore = aStore;
+			mySlot = aSlot;
+		}
+
+		private void unbind() {
+			double x = getXLocation();
+			double y = getYLocation();
+			myStore = null;
+			super.setLocation(x, y);
+		}
+
+		@Override
+		public double getXLocation() {
+			return myStore == null ? super.getXLocation() : myStore.myX[mySlot];
+		}
+
+		@Override
+		public double getYLocation() {
+			return myStore == null ? super.getYLocation() : myStore.myY[mySlot];
+		}
+
+		@Override
+		public void setLocation(double aXLocation, double aYLocation) {
+			if (myStore == null) {
+				super.setLocation(aXLocation, aYLocation);
+			} else {
+				myStore.setLocation(mySlot, aXLocation, aYLocation);
+			}
+		}
+	}
+}
@@ -1,19 +1,19 @@
 package game_engine;
 
-import game_data.Location;
 import game_data.Sprite;
 import game_data.characteristics.BouncerTop;
-import game_data.characteristics.Characteristic;
 import game_data.characteristics.TransparentBottomImpassable;
 import game_data.sprites.Terrain;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import javafx.scene.image.ImageView;
-
 /**
+ * Narrowphase for a single target Sprite. Computes which of the broadphase
+ * candidates actually overlap the target and on which Side, and reports the
+ * pushes out of Terrain to the CollisionTable instead of moving Sprites.
+ * 
  * @author Austin Gartside, Lucia, ALEX!!!!!112!1!!
  *
  */
@@ -22,20 +22,30 @@ public class ListOfCollidingSprites {
 	private Sprite targetSprite;
 	private List<Sprite> spriteList;
 	private Map<Sprite, Side> collisionSprites;
-	private Map<Sprite, ImageView> mySpriteImages;
+	private SpatialGrid myBroadphase;
+	private CollisionTable myCorrections;
 
-	public ListOfCollidingSprites(Sprite targetSprite, List<Sprite> spriteList, Map<Sprite, ImageView> spriteImages) {
+	public ListOfCollidingSprites(Sprite targetSprite, SpatialGrid broadphase, CollisionTable corrections) {
 		this.targetSprite = targetSprite;
-		this.spriteList = spriteList;
-		this.mySpriteImages=spriteImages;
+		this.myBroadphase = broadphase;
+		this.spriteList = broadphase.query(targetSprite);
+		this.myCorrections=corrections;
 		getListOfSpritesCollided();
 	}
 
+	/**
+	 * @return number of broadphase candidates whose bounds were tested
+	 *         against the target
+	 */
+	public int getPairTests() {
+		return spriteList.size();
+	}
+
 	private void getListOfSpritesCollided() {
-		collisionSprites = new HashMap<Sprite, Side>();
+		collisionSprites = new LinkedHashMap<Sprite, Side>();
+		BoundingBox targetBounds = myBroadphase.getBounds(targetSprite);
 		for (Sprite mySprite : spriteList) {
-			if ( mySprite != targetSprite && mySpriteImages.get(mySprite).getBoundsInParent()
-					.intersects(mySpriteImages.get(targetSprite).getBoundsInParent()) ) 
+			if ( mySprite != targetSprite && myBroadphase.getBounds(mySprite).intersects(targetBounds) ) 
 			{
 				collisionSprites.put(mySprite, findSideOfCollision(mySprite));
 			}
@@ -48,9 +58,6 @@ public class ListOfCollidingSprites {
 
 	private Side findSideOfCollision(Sprite mySprite) {
 
-		double myTopLeftX = mySprite.getLocation().getXLocation();
-		double myTopLeftY = mySprite.getLocation().getYLocation();
-
 		if (!(mySprite instanceof Terrain)) {
 
 			double mySprite_bottom = mySprite.getLocation().getYLocation() + mySprite.getHeight();
@@ -66,7 +73,7 @@ public class ListOfCollidingSprites {
 			if (top_collision < bottom_collision && top_collision < left_collision && top_collision < right_collision) {
 
 				if((targetSprite instanceof Terrain && !isTransparent()) || (isTransparent() && pastPlatform(mySprite))){
-					mySprite.setLocation(new Location(myTopLeftX, myTopLeftY - top_collision));
+					myCorrections.pushUp(mySprite, top_collision);
 				}
 
 				return new Top();
@@ -75,7 +82,7 @@ public class ListOfCollidingSprites {
 					&& bottom_collision < right_collision) {
 				
 				if(targetSprite instanceof Terrain && !isTransparent()){
-					mySprite.setLocation(new Location(myTopLeftX, myTopLeftY + bottom_collision));
+					myCorrections.pushDown(mySprite, bottom_collision);
 				}
 
 				return new Bottom();
@@ -83,8 +90,7 @@ public class ListOfCollidingSprites {
 			} else if (left_collision < right_collision && left_collision < top_collision
 					&& left_collision < bottom_collision) {
 					if(targetSprite instanceof Terrain && !isTransparent()){
-						mySprite.setLocation(new Location(myTopLeftX, myTopLeftY - top_collision));
-						mySprite.setLocation(new Location(myTopLeftX - left_collision, myTopLeftY));
+						myCorrections.pushLeft(mySprite, left_collision);
 					}
 
 					return new Left();
@@ -92,8 +98,7 @@ public class ListOfCollidingSprites {
 			} else if (right_collision < left_collision && right_collision < top_collision
 					&& right_collision < bottom_collision) {
 				if(targetSprite instanceof Terrain && !isTransparent()){
-					mySprite.setLocation(new Location(myTopLeftX, myTopLeftY - top_collision));
-					mySprite.setLocation(new Location(myTopLeftX + right_collision, myTopLeftY));
+					myCorrections.pushRight(mySprite, right_collision);
 				}
 
 					return new Right();
@@ -109,11 +114,7 @@ public class ListOfCollidingSprites {
 	}
 
 	private boolean isTransparent() {
-		for (Characteristic c : targetSprite.getCharacteristics()) {
-			if (c instanceof TransparentBottomImpassable || c instanceof BouncerTop) {
-				return true;
-			}
-		}
-		return false;
+		return targetSprite.hasCharacteristic(TransparentBottomImpassable.class)
+				|| targetSprite.hasCharacteristic(BouncerTop.class);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package game_engine;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import game_data.Sprite;
+
+/**
+ * Reuses launched projectiles. Each launch action asks for a copy of its own
+ * preset; once that copy dies or leaves the Level it is released back to the
+ * pool and reset to the preset the next time one is launched, instead of
+ * cloning the preset and leaving the old copy to the garbage collector.
+ */
+public class ProjectilePool {
+
+	private Map<Sprite, Sprite> myPresets;
+	private Map<Sprite, Deque<Sprite>> myFreeProjectiles;
+	private Set<Sprite> myReleased;
+
+	public ProjectilePool() {
+		myPresets = new IdentityHashMap<Sprite, Sprite>();
+		myFreeProjectiles = new IdentityHashMap<Sprite, Deque<Sprite>>();
+		myReleased = Collections.newSetFromMap(new IdentityHashMap<Sprite, Boolean>());
+	}
+
+	/**
+	 * @param aPreset - Sprite the projectile is a copy of
+	 * @return a released projectile reset to aPreset, or a new copy of aPreset
+	 *         if none was released
+	 */
+	public Sprite acquire(Sprite aPreset) {
+		Deque<Sprite> free = myFreeProjectiles.get(aPreset);
+		if (free == null || free.isEmpty()) {
+			Sprite projectile = aPreset.clone();
+			myPresets.put(projectile, aPreset);
+			return projectile;
+		}
+		Sprite projectile = free.pop();
+		myReleased.remove(projectile);
+		projectile.resetTo(aPreset);
+		return projectile;
+	}
+
+	/**
+	 * @return whether aSprite was handed out by this pool
+	 */
+	public boolean isPooled(Sprite aSprite) {
+		return myPresets.containsKey(aSprite);
+	}
+
+	/**
+	 * Makes a projectile handed out by this pool available again. It must
+	 * already have been removed from its Level. Other Sprites are ignored.
+	 */
+	public void release(Sprite aProjectile) {
+		Sprite preset = myPresets.get(aProjectile);
+		if (preset == null || !myReleased.add(aProjectile)) {
+			return;
+		}
+		Deque<Sprite> free = myFreeProjectiles.get(preset);
+		if (free == null) {
+			free = new ArrayDeque<Sprite>();
+			myFreeProjectiles.put(preset, free);
+		}
+		free.push(aProjectile);
+	}
+
+	/**
+	 * @return number of released projectiles waiting to be reused
+	 */
+	public int getFreeCount() {
+		return myReleased.size();
+	}
+}
@@ -0,0 +1,97 @@
+package game_engine;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent values recorded, one per tick, in a ring so
+ * recording never allocates. Percentiles are computed over that window
+ * when they are read.
+ */
+public class RollingHistogram {
+
+	private final long[] myValues;
+	private int myNext;
+	private int mySize;
+	private long myTotalCount;
+
+	/**
+	 * @param aWindow - number of most recent values kept
+	 */
+	public RollingHistogram(int aWindow) {
+		myValues = new long[aWindow];
+	}
+
+	public synchronized void record(long aValue) {
+		myValues[myNext] = aValue;
+		myNext = (myNext + 1) % myValues.length;
+		mySize = Math.min(mySize + 1, myValues.length);
+		myTotalCount++;
+	}
+
+	/**
+	 * @return number of values in the window
+	 */
+	public synchronized int size() {
+		return mySize;
+	}
+
+	/**
+	 * @return number of values recorded since this histogram was created
+	 */
+	public synchronized long getTotalCount() {
+		return myTotalCount;
+	}
+
+	/**
+	 * @return the most recently recorded value, or 0 if none was
+	 */
+	public synchronized long getLast() {
+		if (mySize == 0) {
+			return 0;
+		}
+		return myValues[(myNext + myValues.length - 1) % myValues.length];
+	}
+
+	/**
+	 * @param aPercentile - between 0 and 100, e.g. 99 for the 99th percentile
+	 * @return the smallest value in the window that at least aPercentile
+	 *         percent of the window does not exceed, or 0 if it is empty
+	 */
+	public long getPercentile(double aPercentile) {
+		long[] values = getSortedValues();
+		if (values.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(aPercentile / 100 * values.length);
+		return values[Math.min(Math.max(rank - 1, 0), values.length - 1)];
+	}
+
+	public long getMax() {
+		return getPercentile(100);
+	}
+
+	public synchronized double getMean() {
+		if (mySize == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < mySize; i++) {
+			sum += myValues[i];
+		}
+		return (double) sum / mySize;
+	}
+
+	public synchronized void clear() {
+		myNext = 0;
+		mySize = 0;
+	}
+
+	private long[] getSortedValues() {
+		long[] values;
+		synchronized (this) {
+			values = Arrays.copyOf(myValues, mySize);
+		}
+		Arrays.sort(values);
+		return values;
+	}
+}
@@ -0,0 +1,327 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game_data.Sprite;
+
+/**
+ * Uniform-grid broadphase over the Sprites of a Level. Every Sprite is bucketed
+ * into each cell its bounding box touches, so a collision query only looks at
+ * the Sprites sharing a cell with the target instead of the whole Level.
+ * Sprites are only re-bucketed when the range of cells they cover changes.
+ * 
+ * The grid also keeps the BoundingBox each Sprite had at its last update, which
+ * is what the narrowphase tests against.
+ */
+public class SpatialGrid {
+
+	private double myCellSize;
+	private CellMap myCells;
+	private Map<Sprite, CellRange> myRanges;
+	private int myQueryStamp;
+
+	public SpatialGrid() {
+		this(GameResources.BROADPHASE_CELL_SIZE.getDoubleResource());
+	}
+
+	public SpatialGrid(double aCellSize) {
+		myCellSize = aCellSize;
+		myCells = new CellMap();
+		myRanges = new IdentityHashMap<Sprite, CellRange>();
+		myQueryStamp = 0;
+	}
+
+	public void insert(Sprite aSprite) {
+		if (myRanges.containsKey(aSprite)) {
+			return;
+		}
+		CellRange range = new CellRange();
+		computeRange(aSprite, range);
+		myRanges.put(aSprite, range);
+		addToCells(aSprite, range);
+	}
+
+	public void remove(Sprite aSprite) {
+		CellRange range = myRanges.remove(aSprite);
+		if (range != null) {
+			removeFromCells(aSprite, range);
+		}
+	}
+
+	/**
+	 * Re-buckets the given Sprites whose cell range changed since the last
+	 * update. Sprites that did not move across a cell boundary cost one range
+	 * computation and no map operations, sleeping or frozen Sprites cost nothing.
+	 */
+	public void update(Collection<Sprite> aSprites) {
+		CellRange scratch = new CellRange();
+		for (Sprite sprite : aSprites) {
+			CellRange range = myRanges.get(sprite);
+			if (range == null) {
+				insert(sprite);
+				continue;
+			}
+			if (KinematicsStore.isSuspended(sprite)) {
+				continue;
+			}
+			computeRange(sprite, scratch);
+			if (range.sameCells(scratch)) {
+				range.bounds.setBounds(sprite);
+			} else {
+				removeFromCells(sprite, range);
+				range.copy(scratch);
+				addToCells(sprite, range);
+			}
+		}
+	}
+
+	/**
+	 * @param aSprite - indexed Sprite
+	 * @return the bounds aSprite had at the last update, or null if aSprite is
+	 *         not indexed yet
+	 */
+	public BoundingBox getBounds(Sprite aSprite) {
+		CellRange range = myRanges.get(aSprite);
+		if (range == null) {
+			return null;
+		}
+		return range.bounds;
+	}
+
+	/**
+	 * @param aTarget - Sprite whose neighbours are wanted
+	 * @return every other Sprite sharing at least one cell with aTarget, each
+	 *         listed once
+	 */
+	public List<Sprite> query(Sprite aTarget) {
+		CellRange range = myRanges.get(aTarget);
+		if (range == null) {
+			return new ArrayList<Sprite>();
+		}
+		return query(range.minX, range.minY, range.maxX, range.maxY, aTarget);
+	}
+
+	/**
+	 * @param aRegion - area whose Sprites are wanted, e.g. the area a Sprite
+	 *            swept through during a tick
+	 * @param aExcluded - Sprite to leave out of the result
+	 * @return every Sprite other than aExcluded sharing at least one cell with
+	 *         aRegion, each listed once
+	 */
+	public List<Sprite> query(BoundingBox aRegion, Sprite aExcluded) {
+		return query(aRegion, aExcluded, new ArrayList<Sprite>());
+	}
+
+	/**
+	 * Like {@link #query(BoundingBox, Sprite)}, but fills aResult instead of
+	 * a new List, so a caller querying every tick can keep reusing one.
+	 * 
+	 * @param aResult - cleared, then filled with the Sprites found
+	 * @return aResult
+	 */
+	public List<Sprite> query(BoundingBox aRegion, Sprite aExcluded, List<Sprite> aResult) {
+		aResult.clear();
+		return query(cell(aRegion.getMinX()), cell(aRegion.getMinY()), cell(aRegion.getMaxX()),
+				cell(aRegion.getMaxY()), aExcluded, aResult);
+	}
+
+	private List<Sprite> query(int aMinX, int aMinY, int aMaxX, int aMaxY, Sprite aTarget) {
+		return query(aMinX, aMinY, aMaxX, aMaxY, aTarget, new ArrayList<Sprite>());
+	}
+
+	private List<Sprite> query(int aMinX, int aMinY, int aMaxX, int aMaxY, Sprite aTarget, List<Sprite> candidates) {
+		myQueryStamp++;
+		for (int x = aMinX; x <= aMaxX; x++) {
+			for (int y = aMinY; y <= aMaxY; y++) {
+				List<Sprite> cell = myCells.get(key(x, y));
+				if (cell == null) {
+					continue;
+				}
+				for (int i = 0; i < cell.size(); i++) {
+					Sprite sprite = cell.get(i);
+					CellRange other = myRanges.get(sprite);
+					if (sprite != aTarget && other.stamp != myQueryStamp) {
+						other.stamp = myQueryStamp;
+						candidates.add(sprite);
+					}
+				}
+			}
+		}
+		return candidates;
+	}
+
+	public void clear() {
+		myCells.clear();
+		myRanges.clear();
+	}
+
+	private void computeRange(Sprite aSprite, CellRange aRange) {
+		aRange.bounds.setBounds(aSprite);
+		aRange.minX = cell(aRange.bounds.getMinX());
+		aRange.minY = cell(aRange.bounds.getMinY());
+		aRange.maxX = cell(aRange.bounds.getMaxX());
+		aRange.maxY = cell(aRange.bounds.getMaxY());
+	}
+
+	private void addToCells(Sprite aSprite, CellRange aRange) {
+		for (int x = aRange.minX; x <= aRange.maxX; x++) {
+			for (int y = aRange.minY; y <= aRange.maxY; y++) {
+				long key = key(x, y);
+				List<Sprite> cell = myCells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Sprite>();
+					myCells.put(key, cell);
+				}
+				cell.add(aSprite);
+			}
+		}
+	}
+
+	private void removeFromCells(Sprite aSprite, CellRange aRange) {
+		for (int x = aRange.minX; x <= aRange.maxX; x++) {
+			for (int y = aRange.minY; y <= aRange.maxY; y++) {
+				long key = key(x, y);
+				List<Sprite> cell = myCells.get(key);
+				if (cell != null) {
+					cell.remove(aSprite);
+					if (cell.isEmpty()) {
+						myCells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	private int cell(double aCoordinate) {
+		return (int) Math.floor(aCoordinate / myCellSize);
+	}
+
+	private long key(int x, int y) {
+		return (((long) x) << 32) ^ (y & 0xffffffffL);
+	}
+
+	private static class CellRange {
+		private int minX, minY, maxX, maxY;
+		private int stamp;
+		private BoundingBox bounds = new BoundingBox();
+
+		private boolean sameCells(CellRange other) {
+			return minX == other.minX && minY == other.minY && maxX == other.maxX && maxY == other.maxY;
+		}
+
+		private void copy(CellRange other) {
+			minX = other.minX;
+			minY = other.minY;
+			maxX = other.maxX;
+			maxY = other.maxY;
+			bounds.setBounds(other.bounds);
+		}
+	}
+
+	/**
+	 * Open addressing map from cell keys to the Sprites in that cell. Unlike
+	 * a HashMap of Longs, looking a cell up does not box its key, so queries
+	 * allocate nothing.
+	 */
+	private static class CellMap {
+		private static final int INITIAL_CAPACITY = 64;
+
+		private long[] keys;
+		private List<Sprite>[] cells;
+		private int size;
+
+		private CellMap() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		private List<Sprite> get(long aKey) {
+			for (int i = slot(aKey);; i = next(i)) {
+				if (cells[i] == null) {
+					return null;
+				}
+				if (keys[i] == aKey) {
+					return cells[i];
+				}
+			}
+		}
+
+		private void put(long aKey, List<Sprite> aCell) {
+			int i = slot(aKey);
+			for (; cells[i] != null; i = next(i)) {
+				if (keys[i] == aKey) {
+					cells[i] = aCell;
+					return;
+				}
+			}
+			keys[i] = aKey;
+			cells[i] = aCell;
+			if (++size * 2 > cells.length) {
+				resize();
+			}
+		}
+
+		/**
+		 * Moves the entries after the removed one back into the gap it
+		 * leaves, so every key stays reachable from its home slot.
+		 */
+		private void remove(long aKey) {
+			int i = slot(aKey);
+			for (; keys[i] != aKey; i = next(i)) {
+				if (cells[i] == null) {
+					return;
+				}
+			}
+			if (cells[i] == null) {
+				return;
+			}
+			size--;
+			for (int gap = i, j = next(i);; j = next(j)) {
+				if (cells[j] == null) {
+					cells[gap] = null;
+					return;
+				}
+				int home = slot(keys[j]);
+				if ((j > gap && (home <= gap || home > j)) || (j < gap && home <= gap && home > j)) {
+					keys[gap] = keys[j];
+					cells[gap] = cells[j];
+					gap = j;
+				}
+			}
+		}
+
+		private void clear() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void allocate(int aCapacity) {
+			keys = new long[aCapacity];
+			cells = new List[aCapacity];
+			size = 0;
+		}
+
+		private void resize() {
+			long[] oldKeys = keys;
+			List<Sprite>[] oldCells = cells;
+			allocate(oldCells.length * 2);
+			for (int i = 0; i < oldCells.length; i++) {
+				if (oldCells[i] != null) {
+					put(oldKeys[i], oldCells[i]);
+				}
+			}
+		}
+
+		private int slot(long aKey) {
+			long hash = aKey * 0x9E3779B97F4A7C15L;
+			return (int) (hash >>> 32) & (cells.length - 1);
+		}
+
+		private int next(int aSlot) {
+			return (aSlot + 1) & (cells.length - 1);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package game_engine;
+
+import game_data.Sprite;
+
+/**
+ * Immutable copy of what is needed to draw one Sprite at the end of a tick.
+ * The Sprite itself is only kept as a key for the display and must not be
+ * read from outside the simulation thread.
+ */
+public class SpriteFrame {
+
+	private final Sprite mySprite;
+	private final double myX, myY;
+	private final double myPreviousX, myPreviousY;
+	private final double myWidth, myHeight;
+	private final String myImagePath;
+	private final boolean isVisible;
+
+	public SpriteFrame(Sprite aSprite, double aPreviousX, double aPreviousY, boolean aVisible) {
+		mySprite = aSprite;
+		myX = aSprite.getLocation().getXLocation();
+		myY = aSprite.getLocation().getYLocation();
+		myPreviousX = aPreviousX;
+		myPreviousY = aPreviousY;
+		myWidth = aSprite.getWidth();
+		myHeight = aSprite.getHeight();
+		myImagePath = aSprite.getImagePath();
+		isVisible = aVisible;
+	}
+
+	public Sprite getSprite() {
+		return mySprite;
+	}
+
+	/**
+	 * @param aInterpolation - 0 for the location before the tick, 1 for the
+	 *            location after it
+	 */
+	public double getX(double aInterpolation) {
+		return myPreviousX + (myX - myPreviousX) * aInterpolation;
+	}
+
+	public double getY(double aInterpolation) {
+		return myPreviousY + (myY - myPreviousY) * aInterpolation;
+	}
+
+	public double getWidth() {
+		return myWidth;
+	}
+
+	public double getHeight() {
+		return myHeight;
+	}
+
+	public String getImagePath() {
+		return myImagePath;
+	}
+
+	public boolean isVisible() {
+		return isVisible;
+	}
+}
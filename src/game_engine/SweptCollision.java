@@ -0,0 +1,191 @@
+package game_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import game_data.Sprite;
+import game_data.characteristics.BouncerTop;
+import game_data.characteristics.TransparentBottomImpassable;
+import game_data.sprites.Terrain;
+
+/**
+ * Continuous collision of fast Sprites against Terrain, run right after
+ * integration. The overlap test at the start of a tick misses Terrain a Sprite
+ * crossed entirely within one step, and pushes a Sprite that went too far into
+ * Terrain out of the wrong side. For every Sprite that moved more than half
+ * its size, the box it swept is tested against the Terrain in its way. If the
+ * first Terrain it hits would be missed or resolved to the wrong side, the
+ * Sprite is moved back to the point of contact along the axis of impact and
+ * keeps its motion along the other axis. The next collision pass then finds it
+ * touching that Terrain and reacts as if it had landed there.
+ * 
+ * Sprites moving slower than that are left to the overlap test, so they
+ * behave exactly as before.
+ */
+public class SweptCollision {
+
+	private static final int MAX_IMPACTS = 2;
+
+	private BoundingBox mySweep;
+	private List<Sprite> myCandidates;
+	private Impact myImpact;
+	private double myAxisEntry;
+	private double myAxisExit;
+
+	public SweptCollision() {
+		mySweep = new BoundingBox();
+		myCandidates = new ArrayList<Sprite>();
+		myImpact = new Impact();
+	}
+
+	/**
+	 * @return number of Sprites moved back to a point of contact
+	 */
+	public int resolve(KinematicsStore aKinematics, SpatialGrid aBroadphase) {
+		int impacts = 0;
+		for (int i = 0; i < aKinematics.size(); i++) {
+			Sprite sprite = aKinematics.getSprite(i);
+			if (!aKinematics.hasChanged(i) || sprite instanceof Terrain) {
+				continue;
+			}
+			double startX = aKinematics.getStartX(i);
+			double startY = aKinematics.getStartY(i);
+			for (int k = 0; k < MAX_IMPACTS; k++) {
+				double endX = sprite.getLocation().getXLocation();
+				double endY = sprite.getLocation().getYLocation();
+				if (!isFast(sprite, endX - startX, endY - startY)
+						|| !findImpact(sprite, startX, startY, endX, endY, aBroadphase)) {
+					break;
+				}
+				if (myImpact.isHorizontal) {
+					aKinematics.setLocation(i, myImpact.contact, endY);
+					startX = myImpact.contact;
+				} else {
+					aKinematics.setLocation(i, endX, myImpact.contact);
+					startY = myImpact.contact;
+				}
+				impacts++;
+			}
+		}
+		return impacts;
+	}
+
+	private boolean isFast(Sprite aSprite, double aXDistance, double aYDistance) {
+		return Math.abs(aXDistance) > aSprite.getWidth() / 2.0 || Math.abs(aYDistance) > aSprite.getHeight() / 2.0;
+	}
+
+	/**
+	 * Finds the first Terrain the box of aSprite hits on its way from the
+	 * start to the end location and keeps it in myImpact if the overlap test
+	 * would not stop the Sprite at it.
+	 */
+	private boolean findImpact(Sprite aSprite, double aStartX, double aStartY, double aEndX, double aEndY,
+			SpatialGrid aBroadphase) {
+		double width = aSprite.getWidth();
+		double height = aSprite.getHeight();
+		double dx = aEndX - aStartX;
+		double dy = aEndY - aStartY;
+		mySweep.setBounds(Math.min(aStartX, aEndX), Math.min(aStartY, aEndY), width + Math.abs(dx),
+				height + Math.abs(dy));
+		double firstEntry = Double.POSITIVE_INFINITY;
+		BoundingBox firstTerrain = null;
+		boolean firstIsHorizontal = false;
+		aBroadphase.query(mySweep, aSprite, myCandidates);
+		for (int i = 0; i < myCandidates.size(); i++) {
+			Sprite other = myCandidates.get(i);
+			if (!(other instanceof Terrain)) {
+				continue;
+			}
+			BoundingBox terrain = aBroadphase.getBounds(other);
+			if (!axisTimes(aStartX, width, dx, terrain.getMinX(), terrain.getMaxX())) {
+				continue;
+			}
+			double xEntry = myAxisEntry;
+			double xExit = myAxisExit;
+			if (!axisTimes(aStartY, height, dy, terrain.getMinY(), terrain.getMaxY())) {
+				continue;
+			}
+			double entry = Math.max(xEntry, myAxisEntry);
+			double exit = Math.min(xExit, myAxisExit);
+			if (entry < 0 || entry >= 1 || entry >= exit || entry >= firstEntry) {
+				continue;
+			}
+			boolean isHorizontal = xEntry > myAxisEntry;
+			if (isOneWay(other) && (isHorizontal || dy <= 0)) {
+				continue;
+			}
+			firstEntry = entry;
+			firstTerrain = terrain;
+			firstIsHorizontal = isHorizontal;
+		}
+		if (firstTerrain == null || isStoppedByOverlap(aEndX, aEndY, width, height, dx, dy, firstTerrain,
+				firstIsHorizontal)) {
+			return false;
+		}
+		myImpact.isHorizontal = firstIsHorizontal;
+		if (firstIsHorizontal) {
+			myImpact.contact = dx > 0 ? firstTerrain.getMinX() - width : firstTerrain.getMaxX();
+		} else {
+			myImpact.contact = dy > 0 ? firstTerrain.getMinY() - height : firstTerrain.getMaxY();
+		}
+		return true;
+	}
+
+	/**
+	 * Sets myAxisEntry and myAxisExit to the fractions of the step at which a
+	 * box moving aDistance along one axis starts and stops overlapping
+	 * [aMin, aMax] on that axis. Boxes that only touch do not overlap.
+	 * 
+	 * @return false if the box never overlaps [aMin, aMax]
+	 */
+	private boolean axisTimes(double aStart, double aSize, double aDistance, double aMin, double aMax) {
+		if (aDistance == 0) {
+			if (aStart + aSize <= aMin || aStart >= aMax) {
+				return false;
+			}
+			myAxisEntry = Double.NEGATIVE_INFINITY;
+			myAxisExit = Double.POSITIVE_INFINITY;
+			return true;
+		}
+		double toMin = (aMin - (aStart + aSize)) / aDistance;
+		double toMax = (aMax - aStart) / aDistance;
+		myAxisEntry = aDistance > 0 ? toMin : toMax;
+		myAxisExit = aDistance > 0 ? toMax : toMin;
+		return true;
+	}
+
+	/**
+	 * Mirrors the choice of Side in ListOfCollidingSprites: the overlap test
+	 * stops the Sprite at aTerrain only if the Sprite ends overlapping it and
+	 * the shallowest overlap is the one against the direction of impact.
+	 */
+	private boolean isStoppedByOverlap(double aX, double aY, double aWidth, double aHeight, double aXDistance,
+			double aYDistance, BoundingBox aTerrain, boolean aIsHorizontal) {
+		double pushUp = aY + aHeight - aTerrain.getMinY();
+		double pushDown = aTerrain.getMaxY() - aY;
+		double pushLeft = aX + aWidth - aTerrain.getMinX();
+		double pushRight = aTerrain.getMaxX() - aX;
+		if (pushUp < 0 || pushDown < 0 || pushLeft < 0 || pushRight < 0) {
+			return false;
+		}
+		double expected;
+		if (aIsHorizontal) {
+			expected = aXDistance > 0 ? pushLeft : pushRight;
+		} else {
+			expected = aYDistance > 0 ? pushUp : pushDown;
+		}
+		int shallower = (pushUp <= expected ? 1 : 0) + (pushDown <= expected ? 1 : 0)
+				+ (pushLeft <= expected ? 1 : 0) + (pushRight <= expected ? 1 : 0);
+		return shallower == 1;
+	}
+
+	private boolean isOneWay(Sprite aTerrain) {
+		return aTerrain.hasCharacteristic(TransparentBottomImpassable.class)
+				|| aTerrain.hasCharacteristic(BouncerTop.class);
+	}
+
+	private static class Impact {
+		private boolean isHorizontal;
+		private double contact;
+	}
+}
@@ -0,0 +1,241 @@
+package game_engine;
+
+import java.util.Arrays;
+
+/**
+ * Runs callbacks a given number of ticks from now. Timers are kept in a
+ * hierarchy of wheels of 64 slots each: the first wheel has a slot per tick,
+ * every further one a slot per full turn of the wheel below it. A timer is
+ * filed under the slot of the smallest wheel that reaches its deadline and
+ * moves down a wheel whenever the one below it finishes a turn, so
+ * {@link #advance()} only touches the timers that fire or move down, not every
+ * timer that is waiting.
+ *
+ * Timers live in parallel arrays and are referred to by a long handle that
+ * holds the timer's index and a generation, so a handle of a timer that has
+ * fired or was cancelled never reaches the timer now using its index. The
+ * wheel is not thread-safe; Characteristics schedule through
+ * {@link ActionDispatcher#schedule(long, Runnable)}.
+ */
+public class TimingWheel {
+
+	/**
+	 * Handle that never refers to a timer.
+	 */
+	public static final long NO_TIMER = 0;
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int WHEELS = 4;
+	private static final long RANGE = 1L << (SLOT_BITS * WHEELS);
+	private static final int NONE = -1;
+
+	private long myTick;
+	private int[] myHeads;
+	private int[] myTails;
+	private long[] myDeadlines;
+	private Runnable[] myCallbacks;
+	private int[] myNext;
+	private int[] myPrevious;
+	private int[] mySlots;
+	private int[] myGenerations;
+	private int myFree;
+	private int myCapacity;
+	private int mySize;
+
+	public TimingWheel() {
+		myHeads = new int[SLOTS * WHEELS];
+		myTails = new int[SLOTS * WHEELS];
+		Arrays.fill(myHeads, NONE);
+		Arrays.fill(myTails, NONE);
+		myDeadlines = new long[0];
+		myCallbacks = new Runnable[0];
+		myNext = new int[0];
+		myPrevious = new int[0];
+		mySlots = new int[0];
+		myGenerations = new int[0];
+		myFree = NONE;
+		grow(16);
+	}
+
+	/**
+	 * @return number of times {@link #advance()} was called
+	 */
+	public long getTick() {
+		return myTick;
+	}
+
+	/**
+	 * @return number of timers waiting to fire
+	 */
+	public int size() {
+		return mySize;
+	}
+
+	/**
+	 * @param aDelay - ticks until aCallback is run, at least one
+	 * @param aCallback - run by the {@link #advance()} that reaches the
+	 *            deadline
+	 * @return handle of the new timer
+	 */
+	public long schedule(long aDelay, Runnable aCallback) {
+		if (myFree == NONE) {
+			grow(myCapacity * 2);
+		}
+		int timer = myFree;
+		myFree = myNext[timer];
+		myDeadlines[timer] = myTick + Math.max(1, aDelay);
+		myCallbacks[timer] = aCallback;
+		file(timer);
+		mySize++;
+		return handle(timer);
+	}
+
+	/**
+	 * @return whether the timer was waiting, and so will not fire now
+	 */
+	public boolean cancel(long aTimer) {
+		int timer = find(aTimer);
+		if (timer == NONE) {
+			return false;
+		}
+		unlink(timer);
+		release(timer);
+		return true;
+	}
+
+	public boolean isScheduled(long aTimer) {
+		return find(aTimer) != NONE;
+	}
+
+	/**
+	 * @return ticks until the timer fires, or -1 if it is not waiting
+	 */
+	public long getRemaining(long aTimer) {
+		int timer = find(aTimer);
+		if (timer == NONE) {
+			return -1;
+		}
+		return myDeadlines[timer] - myTick;
+	}
+
+	/**
+	 * Moves on one tick and runs the callbacks of the timers that are due, in
+	 * the order they reached the first wheel. A callback may schedule and cancel
+	 * timers; one it schedules fires on a later tick at the earliest.
+	 *
+	 * @return number of callbacks run
+	 */
+	public int advance() {
+		myTick++;
+		for (int wheel = 1; wheel < WHEELS && (myTick & ((1L << (SLOT_BITS * wheel)) - 1)) == 0; wheel++) {
+			cascade(wheel * SLOTS + (int) ((myTick >>> (SLOT_BITS * wheel)) & SLOT_MASK));
+		}
+		int slot = (int) (myTick & SLOT_MASK);
+		int fired = 0;
+		while (myHeads[slot] != NONE) {
+			int timer = myHeads[slot];
+			Runnable callback = myCallbacks[timer];
+			unlink(timer);
+			release(timer);
+			callback.run();
+			fired++;
+		}
+		return fired;
+	}
+
+	/**
+	 * Files every timer of aSlot again, which puts each under a smaller wheel
+	 * now that its deadline is closer.
+	 */
+	private void cascade(int aSlot) {
+		int timer = myHeads[aSlot];
+		myHeads[aSlot] = NONE;
+		myTails[aSlot] = NONE;
+		while (timer != NONE) {
+			int next = myNext[timer];
+			file(timer);
+			timer = next;
+		}
+	}
+
+	private void file(int aTimer) {
+		long deadline = myDeadlines[aTimer];
+		long delay = deadline - myTick;
+		if (delay >= RANGE) {
+			deadline = myTick + RANGE - 1;
+			delay = RANGE - 1;
+		}
+		int wheel = 0;
+		while (delay >= 1L << (SLOT_BITS * (wheel + 1))) {
+			wheel++;
+		}
+		int slot = wheel * SLOTS + (int) ((deadline >>> (SLOT_BITS * wheel)) & SLOT_MASK);
+		mySlots[aTimer] = slot;
+		myNext[aTimer] = NONE;
+		myPrevious[aTimer] = myTails[slot];
+		if (myTails[slot] == NONE) {
+			myHeads[slot] = aTimer;
+		} else {
+			myNext[myTails[slot]] = aTimer;
+		}
+		myTails[slot] = aTimer;
+	}
+
+	private void unlink(int aTimer) {
+		int slot = mySlots[aTimer];
+		int next = myNext[aTimer];
+		int previous = myPrevious[aTimer];
+		if (previous == NONE) {
+			myHeads[slot] = next;
+		} else {
+			myNext[previous] = next;
+		}
+		if (next == NONE) {
+			myTails[slot] = previous;
+		} else {
+			myPrevious[next] = previous;
+		}
+	}
+
+	private void release(int aTimer) {
+		myCallbacks[aTimer] = null;
+		mySlots[aTimer] = NONE;
+		if (++myGenerations[aTimer] == 0) {
+			myGenerations[aTimer] = 1;
+		}
+		myNext[aTimer] = myFree;
+		myFree = aTimer;
+		mySize--;
+	}
+
+	private long handle(int aTimer) {
+		return ((long) myGenerations[aTimer] << 32) | aTimer;
+	}
+
+	private int find(long aTimer) {
+		int timer = (int) aTimer;
+		if (timer < 0 || timer >= myCapacity || mySlots[timer] == NONE
+				|| myGenerations[timer] != (int) (aTimer >>> 32)) {
+			return NONE;
+		}
+		return timer;
+	}
+
+	private void grow(int aCapacity) {
+		myDeadlines = Arrays.copyOf(myDeadlines, aCapacity);
+		myCallbacks = Arrays.copyOf(myCallbacks, aCapacity);
+		myNext = Arrays.copyOf(myNext, aCapacity);
+		myPrevious = Arrays.copyOf(myPrevious, aCapacity);
+		mySlots = Arrays.copyOf(mySlots, aCapacity);
+		myGenerations = Arrays.copyOf(myGenerations, aCapacity);
+		for (int timer = aCapacity - 1; timer >= myCapacity; timer--) {
+			mySlots[timer] = NONE;
+			myGenerations[timer] = 1;
+			myNext[timer] = myFree;
+			myFree = timer;
+		}
+		myCapacity = aCapacity;
+	}
+}
@@ -2,7 +2,6 @@ package game_engine;
 
 import game_data.Sprite;
 import game_data.states.Physics;
-import game_data.states.State;
 
 public class Top extends Side{
 
@@ -43,14 +42,11 @@ public class Top extends Side{
 		
 		if(aSprite.getYVelocity()>=0 ){
 			
-			for(State i : aSprite.getStates()){
-				if(i instanceof Physics){
-					
-					aSprite.setYAcceleration(-((Physics)i).getVerticalGravity());
-					aSprite.setYVelocity(0);
-					movableSprite.setYAcceleration(((Physics)i).getVerticalGravity());
-					
-				}
+			Physics physics = aSprite.getState(Physics.class);
+			if(physics != null){
+				aSprite.setYAcceleration(-physics.getVerticalGravity());
+				aSprite.setYVelocity(0);
+				movableSprite.setYAcceleration(physics.getVerticalGravity());
 			}
 
 		}
@@ -1,10 +1,23 @@
 package game_engine;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import game_data.Game;
+import game_data.GameObject;
+import game_data.GameObject.NotificationBatch;
+import game_data.Level;
 import game_data.Sprite;
-import javafx.scene.Node;
+import game_engine.replay.InputRecorder;
+import game_engine.replay.TickInput;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 /**
@@ -14,25 +27,103 @@ import javafx.scene.input.KeyCode;
 public class UpdateGame {
 	private UpdateStates myUpdateLevel;
 	private Game myGame;
+	private boolean isParallel;
+	private Future<UpdateStates> myNextLevel;
+	private List<String> myNextLevelImagePaths;
+	private String myNextLevelBackgroundImageFilePath;
+	private InputRecorder myRecorder;
+	private EngineMetrics myMetrics;
+	private boolean isNotifying = true;
 	public UpdateGame(Game aGame){
+		this(aGame, false);
+	}
+	/**
+	 * @param aParallelCharacteristics - whether Characteristics of large Levels
+	 *            are executed on several threads
+	 */
+	public UpdateGame(Game aGame, boolean aParallelCharacteristics){
 		myGame=aGame;
-		myUpdateLevel = new UpdateStates(myGame.getCurrentLevel());
+		isParallel=aParallelCharacteristics;
+		myMetrics = new EngineMetrics();
+		myUpdateLevel = new UpdateStates(myGame.getCurrentLevel(), isParallel, myGame.simulatesWholeLevel());
+		myUpdateLevel.setMetrics(myMetrics);
+		prepareNextLevel();
 	}
-	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased, Map<Sprite, ImageView> aSpriteImages, double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition){
-
-		myUpdateLevel.update(aTimeElapsed, aKeysPressed, aKeysReleased, aSpriteImages, aScreenHeight, aScreenWidth, aScreenXPosition, aScreenYPosition);
-		changeLevel();
+	/**
+	 * Advances the game by one tick without touching any display. Collisions
+	 * are computed from the Sprites' own locations and sizes, so this can run
+	 * without a JavaFX scene. Listeners of the changed GameObjects are
+	 * invalidated once each, after the tick, unless this is not notifying.
+	 */
+	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased, double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition){
+		if(myRecorder!=null){
+			recordTick(new TickInput(aTimeElapsed, aKeysPressed, aKeysReleased, aScreenHeight, aScreenWidth, aScreenXPosition, aScreenYPosition));
+		}
+		NotificationBatch batch = GameObject.batchNotifications(isNotifying);
+		try {
+			myUpdateLevel.update(aTimeElapsed, aKeysPressed, aKeysReleased, aScreenHeight, aScreenWidth, aScreenXPosition, aScreenYPosition);
+			changeLevel();
+		} finally {
+			batch.close();
+		}
 		
 		//int currentLevelIndex = myGame.getLevels().indexOf(myGame.getCurrentLevel());
 		//System.out.println(currentLevelIndex);
 	}
+	/**
+	 * Advances the game by one tick and drops the ImageViews of any Sprite
+	 * removed during it from aSpriteImages.
+	 */
+	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased, Map<Sprite, ImageView> aSpriteImages, double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition){
+		UpdateStates updatedLevel = myUpdateLevel;
+		update(aTimeElapsed, aKeysPressed, aKeysReleased, aScreenHeight, aScreenWidth, aScreenXPosition, aScreenYPosition);
+		for (Sprite removed : updatedLevel.getRemovedSprites()) {
+			aSpriteImages.remove(removed);
+		}
+	}
+	/**
+	 * @param aNotifying - false to not invalidate the listeners of the
+	 *            GameObjects this changes, e.g. when nothing displays the game
+	 */
+	public void setNotifying(boolean aNotifying){
+		isNotifying=aNotifying;
+	}
+	public boolean isNotifying(){
+		return isNotifying;
+	}
+	/**
+	 * @return timings and counts of the recent ticks, kept across Levels
+	 */
+	public EngineMetrics getMetrics(){
+		return myMetrics;
+	}
+	/**
+	 * @param aRecorder - recorder every following tick's input is written to,
+	 *            or null to stop recording; closing it is up to the caller
+	 */
+	public void setRecorder(InputRecorder aRecorder){
+		myRecorder=aRecorder;
+	}
+	public InputRecorder getRecorder(){
+		return myRecorder;
+	}
+	private void recordTick(TickInput aTick){
+		try {
+			myRecorder.record(aTick);
+		} catch (IOException e) {
+			System.out.println("Trouble recording replay, recording stopped");
+			myRecorder=null;
+		}
+	}
 	public void changeLevel(){
 		if(myUpdateLevel.getLevel().wonLevel()){
 			int currentLevelIndex = myGame.getLevels().indexOf(myGame.getCurrentLevel());
 
 			if(currentLevelIndex+1<myGame.getLevels().size()){
 				myGame.setCurrentLevel(currentLevelIndex+1);
-				myUpdateLevel = new UpdateStates(myGame.getCurrentLevel());
+				myUpdateLevel = takeNextLevel();
+				myUpdateLevel.setMetrics(myMetrics);
+				prepareNextLevel();
 			}
 			else{
 				myGame.setHasWon(true);
@@ -43,4 +134,71 @@ public class UpdateGame {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * @return read-only list of the image paths of the Sprites of the Level
+	 *         after the current one, empty if there is none; the display
+	 *         preloads them from here instead of reading that Level itself
+	 */
+	public List<String> getNextLevelImagePaths(){
+		return myNextLevelImagePaths;
+	}
+
+	/**
+	 * @return background of the Level after the current one, or null
+	 */
+	public String getNextLevelBackgroundImageFilePath(){
+		return myNextLevelBackgroundImageFilePath;
+	}
+
+	/**
+	 * Builds the engine state of the Level after the current one on a
+	 * background thread while the current one is played, so switching to it
+	 * does not stall the game. The images it needs are collected first, on
+	 * the thread that runs the game.
+	 */
+	private void prepareNextLevel() {
+		int nextLevelIndex = myGame.getLevels().indexOf(myGame.getCurrentLevel()) + 1;
+		myNextLevel = null;
+		myNextLevelImagePaths = Collections.emptyList();
+		myNextLevelBackgroundImageFilePath = null;
+		if (nextLevelIndex > 0 && nextLevelIndex < myGame.getLevels().size()) {
+			Level nextLevel = myGame.getLevels().get(nextLevelIndex);
+			Set<String> imagePaths = new LinkedHashSet<String>();
+			for (Sprite sprite : nextLevel.getMySpriteList()) {
+				imagePaths.add(sprite.getImagePath());
+			}
+			myNextLevelImagePaths = Collections.unmodifiableList(new ArrayList<String>(imagePaths));
+			myNextLevelBackgroundImageFilePath = nextLevel.getBackgroundImageFilePath();
+			myNextLevel = ForkJoinPool.commonPool().submit(() -> prepareLevel(nextLevel));
+		}
+	}
+
+	private UpdateStates prepareLevel(Level aLevel) {
+		aLevel.getKinematics();
+		aLevel.getBroadphase();
+		aLevel.getCharacteristicRegistry();
+		return new UpdateStates(aLevel, isParallel, myGame.simulatesWholeLevel());
+	}
+
+	/**
+	 * @return the prepared engine state of the current Level, or a new one if
+	 *         it was not prepared or its preparation failed
+	 */
+	private UpdateStates takeNextLevel() {
+		Level level = myGame.getCurrentLevel();
+		if (myNextLevel != null) {
+			try {
+				UpdateStates prepared = myNextLevel.get();
+				if (prepared.getLevel() == level) {
+					return prepared;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// building it again below reports the failure on this thread
+			}
+		}
+		return prepareLevel(level);
+	}
+
+}
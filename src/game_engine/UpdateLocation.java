@@ -3,7 +3,6 @@ package game_engine;
 import game_data.Location;
 import game_data.Sprite;
 import game_data.states.Physics;
-import game_data.states.State;
 /**
  * @author Austin, Katrina
  *
@@ -16,17 +15,12 @@ public class UpdateLocation {
 	public UpdateLocation(Sprite sprite, double timeElapsed) {
 		myTimeElapsed=timeElapsed;
 		mySprite=sprite;
-		mySpritePhysics=null;
-		for(State s: mySprite.getStates()){
-			if(s instanceof Physics){
-				mySpritePhysics = (Physics) s;
-			}
-		}
+		mySpritePhysics=mySprite.getState(Physics.class);
 	}
 	public void updateSpriteParameters(){
 		mySprite.setXVelocity(calculateNewXVelocity());
 		mySprite.setYVelocity(calculateNewYVelocity());
-		mySprite.setLocation(calculateNewLocation());
+		mySprite.setLocation(calculateNewXLocation(), calculateNewYLocation());
 		mySprite.setXAcceleration(0);
 		mySprite.setYAcceleration(0);
 	}
@@ -43,14 +37,13 @@ public class UpdateLocation {
 			return mySprite.getYVelocity();
 	}
 	public Location calculateNewLocation(){
-		Location myCurrentLocation = mySprite.getLocation();
-		double curXLoc = myCurrentLocation.getXLocation();
-		double curYLoc = myCurrentLocation.getYLocation();
-		double myXLocation = curXLoc + calculateNewXVelocity()*myTimeElapsed;
-		double myYLocation = curYLoc + calculateNewYVelocity()*myTimeElapsed;
-		// update the location of the mySprite
-//		Location myNewLocation = new Location(myXLocation, myYLocation, Math.asin(newXVelocity/newYVelocity));
-		return new Location(myXLocation, myYLocation);
+		return new Location(calculateNewXLocation(), calculateNewYLocation());
+	}
+	public double calculateNewXLocation(){
+		return mySprite.getLocation().getXLocation() + calculateNewXVelocity()*myTimeElapsed;
+	}
+	public double calculateNewYLocation(){
+		return mySprite.getLocation().getYLocation() + calculateNewYVelocity()*myTimeElapsed;
 	}
 
 }
@@ -4,14 +4,14 @@ import game_data.Controllable;
 import game_data.Level;
 import game_data.LevelSetter;
 import game_data.Sprite;
-import game_data.characteristics.Characteristic;
 import game_data.characteristics.TemporalPowerUpper;
 import game_data.sprites.Item;
 import game_data.sprites.Player;
 import game_data.sprites.Projectile;
 import game_data.states.Health;
 import game_data.states.LevelWon;
-import game_data.states.State;
+import game_engine.EngineMetrics.Counter;
+import game_engine.EngineMetrics.Phase;
 import game_engine.actions.Action;
 import game_engine.actions.Launch;
 import game_engine.actions.LaunchProxyHorizontal;
@@ -21,14 +21,12 @@ import game_engine.actions.MoveRight;
 import game_engine.actions.MoveUpJump;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumSet;
 import game_engine.properties.RandomMoveHandler.Orientation;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 
 /**
@@ -55,24 +53,41 @@ public class UpdateStates implements IUpdateStatesAndPowerUps {
 	private double myTimeElapsed;
 	private Set<KeyCode> myKeysPressed;
 	private Set<KeyCode> myKeysReleased;
-	private Map<Sprite, ImageView> mySpriteImages;
+	private List<Sprite> myRemovedSprites;
 	private double myScreenWidth, myScreenHeight, myScreenXPosition, myScreenYPosition;
-	private Map<Characteristic, Double> myCurrentPowerUps;
 	private Controllable mainPlayerControllable;
 	private List<Sprite> myControllableSpriteList;
 	private KeyCode launchCodeHorizontal;
 	private KeyCode launchCodeVertical;
 	private boolean horizontalLaunchWasPressed;
 	private boolean verticalLaunchWasPressed;
+	private CollisionTable myCollisionTable;
+	private CharacteristicExecutor myCharacteristicExecutor;
+	private boolean simulatesWholeLevel;
+	private EngineMetrics myMetrics;
+	private SweptCollision mySweptCollision;
 	public UpdateStates(Level aLevel) {
+		this(aLevel, false);
+	}
+	public UpdateStates(Level aLevel, boolean aParallelCharacteristics) {
+		this(aLevel, aParallelCharacteristics, true);
+	}
+	/**
+	 * @param aParallelCharacteristics - whether Characteristics of large Levels
+	 *            are executed on several threads, which gives the same result
+	 *            as executing them on one
+	 * @param aSimulatesWholeLevel - whether every Sprite is simulated, rather
+	 *            than only those within SIMULATION_MARGIN of the screen
+	 */
+	public UpdateStates(Level aLevel, boolean aParallelCharacteristics, boolean aSimulatesWholeLevel) {
 		//count=0;
 		myLevel = aLevel;
-		myCurrentPowerUps = new HashMap<Characteristic, Double>();
+		simulatesWholeLevel = aSimulatesWholeLevel;
 		mySpriteList = new ArrayList<Sprite>();
 		myTimeElapsed = 0;
-		myKeysPressed = new HashSet<KeyCode>();
-		myKeysReleased = new HashSet<KeyCode>();
-		mySpriteImages = new HashMap<Sprite, ImageView>();
+		myKeysPressed = EnumSet.noneOf(KeyCode.class);
+		myKeysReleased = EnumSet.noneOf(KeyCode.class);
+		myRemovedSprites = new ArrayList<Sprite>();
 		myControllableSpriteList = new ArrayList<Sprite>();
 		mainPlayerControllable=new Controllable();
 		launchCodeHorizontal=null;
@@ -81,29 +96,77 @@ public class UpdateStates implements IUpdateStatesAndPowerUps {
 		setVerticalLaunchCode();
 		horizontalLaunchWasPressed=false;
 		verticalLaunchWasPressed=false;
+		myCharacteristicExecutor = new CharacteristicExecutor(aParallelCharacteristics);
+		myMetrics = new EngineMetrics();
+		mySweptCollision = new SweptCollision();
+	}
+	/**
+	 * @param aMetrics - where the duration of every phase of a tick and the
+	 *            work it did are recorded
+	 */
+	public void setMetrics(EngineMetrics aMetrics){
+		myMetrics = aMetrics;
 	}
-	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased, Map<Sprite, ImageView> aSpriteImages, double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition){
+	public EngineMetrics getMetrics(){
+		return myMetrics;
+	}
+	public void update(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased, double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition){
 		myScreenWidth = aScreenWidth;
         myScreenHeight = aScreenHeight;
         myScreenXPosition = aScreenXPosition;
         myScreenYPosition = aScreenYPosition;
 		myTimeElapsed=aTimeElapsed;
-		setKeysWithoutLaunchKeyHeldDown(aKeysPressed);
-		setKeysReleased(aKeysReleased);
-		mySpriteImages=aSpriteImages;
-		myCurrentPowerUps = myLevel.getMainPlayer().getPowerUps();
+		setKeysWithoutLaunchKeyHeldDown(toKeySet(aKeysPressed));
+		setKeysReleased(toKeySet(aKeysReleased));
+		myRemovedSprites = new ArrayList<Sprite>();
 		mySpriteList = myLevel.getMySpriteList();
 		myControllableSpriteList = myLevel.getMyControllableSpriteList();
 		mainPlayerControllable = myLevel.getMainPlayer().getControllable();	
-		setLevel();
-		activatePowerUps();
-		checkPowerUps();
-		executeControls();
-		executeCharacteristics();
-		cleanGame();
+		long spritesAdded = myLevel.getSpritesAdded();
+		TimingWheel previousTimingWheel = ActionDispatcher.bindTimingWheel(myLevel.getTimingWheel());
+		try {
+			long tickStart = System.nanoTime();
+			long phaseStart = tickStart;
+			setLevel();
+			phaseStart = endPhase(Phase.SET_LEVEL, phaseStart);
+			freezeOutsideScreen();
+			phaseStart = endPhase(Phase.FREEZE_OUTSIDE_SCREEN, phaseStart);
+			activatePowerUps();
+			phaseStart = endPhase(Phase.ACTIVATE_POWER_UPS, phaseStart);
+			fireTimers();
+			phaseStart = endPhase(Phase.FIRE_TIMERS, phaseStart);
+			detectCollisions();
+			phaseStart = endPhase(Phase.DETECT_COLLISIONS, phaseStart);
+			executeControls();
+			phaseStart = endPhase(Phase.EXECUTE_CONTROLS, phaseStart);
+			executeCharacteristics();
+			phaseStart = endPhase(Phase.EXECUTE_CHARACTERISTICS, phaseStart);
+			cleanGame();
+			phaseStart = endPhase(Phase.CLEAN_GAME, phaseStart);
+			updateSpritePositions();
+			phaseStart = endPhase(Phase.UPDATE_POSITIONS, phaseStart);
+			moveRandomSprites();
+			phaseStart = endPhase(Phase.MOVE_RANDOM_SPRITES, phaseStart);
+			checkForWin();
+			checkForLoss();
+			endPhase(Phase.CHECK_WIN_AND_LOSS, phaseStart);
+			endPhase(Phase.TICK, tickStart);
+		} finally {
+			ActionDispatcher.unbindTimingWheel(previousTimingWheel);
+		}
+		myMetrics.record(Counter.COLLISION_PAIR_TESTS, myCollisionTable.getPairTests());
+		myMetrics.record(Counter.SPAWNED_SPRITES, myLevel.getSpritesAdded() - spritesAdded);
 		setHorizontalLaunchWasPressed(aKeysPressed);
 		setVerticalLaunchWasPressed(aKeysPressed);
 	}
+	/**
+	 * @return the time aPhase ended, which is when the next one starts
+	 */
+	private long endPhase(Phase aPhase, long aPhaseStart){
+		long now = System.nanoTime();
+		myMetrics.record(aPhase, now - aPhaseStart);
+		return now;
+	}
 	private void setHorizontalLaunchCode(){
 		Map<KeyCode, Action> actionMap = myLevel.getMainPlayer().getControllable().getMyKeyPressedMap();
 		for(KeyCode key: actionMap.keySet()){
@@ -137,7 +200,7 @@ public class UpdateStates implements IUpdateStatesAndPowerUps {
 		}
 	}
 	private void setKeysWithoutLaunchKeyHeldDown(Set<KeyCode> currentKeysPressed){
-		myKeysPressed=new HashSet<KeyCode>();
+		myKeysPressed=EnumSet.noneOf(KeyCode.class);
 		if(launchCodeHorizontal==null && launchCodeVertical==null){
 			myKeysPressed=currentKeysPressed;
 		}	
@@ -162,66 +225,92 @@ public class UpdateStates implements IUpdateStatesAndPowerUps {
 			}
 		}
 	}
+	/**
+	 * Copies a set of keys from the display into an EnumSet, so the actions of
+	 * several held keys run in the same order whatever kind of Set was passed.
+	 */
+	private Set<KeyCode> toKeySet(Set<KeyCode> aKeys){
+		Set<KeyCode> keys = EnumSet.noneOf(KeyCode.class);
+		keys.addAll(aKeys);
+		return keys;
+	}
 	private void setKeysReleased(Set<KeyCode> aKeysReleased){
 		myKeysReleased=aKeysReleased;
 	}
 	public Level getLevel(){
 		return myLevel;
 	}
-	private void activatePowerUps() {
-		for (Characteristic powerUp : myCurrentPowerUps.keySet()) {
-				((TemporalPowerUpper) powerUp).activatePowerUp(myLevel.getMainPlayer(), this,
-						myCurrentPowerUps.get(powerUp));
-		}
+	/**
+	 * @return the Sprites removed from the Level during the last update, so a
+	 *         display can drop whatever it holds for them
+	 */
+	public List<Sprite> getRemovedSprites(){
+		return myRemovedSprites;
 	}
-
-	private void checkPowerUps() {
-		ArrayList<Characteristic> toRemove = new ArrayList<Characteristic>();
-		for (Characteristic powerUp : myCurrentPowerUps.keySet()) {
-			myCurrentPowerUps.put(powerUp, myCurrentPowerUps.get(powerUp) - 1);
-			if (myCurrentPowerUps.get(powerUp) <= 0) {
-				toRemove.add(powerUp);
-			}
-		}
-		for (Characteristic remove : toRemove) {
-			myCurrentPowerUps.remove(remove);
-			powerUpHasBeenRemoved(remove);
+	/**
+	 * Runs the per-tick effects of the main player's power ups, such as
+	 * flashing while invincible. Power ups are activated when they are put on
+	 * the player and reversed when their timers fire, not here.
+	 */
+	private void activatePowerUps() {
+		Sprite player = myLevel.getMainPlayer();
+		for (TemporalPowerUpper powerUp : player.getPowerUps()) {
+			powerUp.updatePowerUp(player);
 		}
-
 	}
 
-	private void powerUpHasBeenRemoved(Characteristic powerUp) {
-		((TemporalPowerUpper) powerUp).reversePowerUp(myLevel.getMainPlayer(), this);
+	/**
+	 * Moves the Level's timers on one tick, which ends the power ups and
+	 * cooldowns that ran out.
+	 */
+	private void fireTimers() {
+		myMetrics.record(Counter.FIRED_TIMERS, myLevel.getTimingWheel().advance());
 	}
 
+	/**
+	 * Removes dead Sprites, and launched projectiles that left the Level,
+	 * handing the projectiles back to the Level's pool.
+	 */
 	private void cleanGame() {
 		ArrayList<Sprite> removeSprites = new ArrayList<Sprite>();
+		ProjectilePool projectilePool = myLevel.getProjectilePool();
 		for (Sprite mySprite : mySpriteList) {
-			for (State state : mySprite.getStates()) {
-				if (state instanceof Health) {
-					if (!((Health) state).isAlive()) {
-						removeSprites.add(mySprite);
-					}
-				}
+			Health health = mySprite.getState(Health.class);
+			if ((health != null && !health.isAlive())
+					|| (projectilePool.isPooled(mySprite) && isOutsideLevel(mySprite))) {
+				removeSprites.add(mySprite);
 			}
 		}
 		for (Sprite mySprite : removeSprites) {
 			myLevel.removeSprite(mySprite);
-			mySpriteImages.remove(mySprite);
+			myRemovedSprites.add(mySprite);
+			projectilePool.release(mySprite);
 		}
+	}
 
-		updateSpritePositions();
-		moveRandomSprites();
-		checkForWin();
-		checkForLoss();
+	private boolean isOutsideLevel(Sprite aSprite) {
+		double margin = GameResources.PROJECTILE_MARGIN.getDoubleResource();
+		double x = aSprite.getLocation().getXLocation();
+		double y = aSprite.getLocation().getYLocation();
+		return x > myLevel.getWidth() + margin || x + aSprite.getWidth() < -margin
+				|| y > myLevel.getHeight() + margin || y + aSprite.getHeight() < -margin;
+	}
 
+	/**
+	 * Runs the one collision pass of the tick. Sides are computed for every
+	 * pair from the positions at the start of the tick, then Sprites
+	 * overlapping Terrain are pushed out before any control or characteristic
+	 * reacts to the collisions.
+	 */
+	private void detectCollisions() {
+		myLevel.getBroadphase().update(mySpriteList);
+		myCollisionTable = new CollisionTable(mySpriteList, myLevel.getBroadphase());
+		myCollisionTable.applyPositionCorrections();
 	}
 
 	private void executeControls() {
 		for (Sprite mySprite : myControllableSpriteList) {
-			ListOfCollidingSprites collidingSprites = new ListOfCollidingSprites(mySprite, mySpriteList,
-					mySpriteImages);
-			Map<Sprite, Side> myCollisionMap = collidingSprites.getCollisionSpriteMap();			
+			Map<Sprite, Side> myCollisionMap = myCollisionTable.getCollisions(mySprite);
 			Controllable control;
 			if (mySprite instanceof Player)
 				control = mainPlayerControllable;
@@ -235,58 +324,62 @@ public class UpdateStates implements IUpdateStatesAndPowerUps {
 		}
 	}
 
+	/**
+	 * Sprites farther than SIMULATION_MARGIN from the screen are frozen until
+	 * the screen comes close to them again.
+	 */
+	private void freezeOutsideScreen() {
+		if (simulatesWholeLevel) {
+			myMetrics.record(Counter.SIMULATED_SPRITES, mySpriteList.size());
+			return;
+		}
+		double margin = GameResources.SIMULATION_MARGIN.getDoubleResource();
+		double left = -myScreenXPosition - margin;
+		double top = -myScreenYPosition - margin;
+		int simulated = myLevel.getKinematics().freezeOutside(left, top, left + myScreenWidth + 2 * margin,
+				top + myScreenHeight + 2 * margin);
+		myMetrics.record(Counter.SIMULATED_SPRITES, simulated);
+	}
+
 	private void moveRandomSprites() {
 		for(Sprite mySprite : mySpriteList) {
+			if(KinematicsStore.isFrozen(mySprite)) {
+				continue;
+			}
 			if( mySprite.getMyRandomMoveHandler() != null && mySprite.getMyRandomMoveHandler().getOrientation() != Orientation.NULL) {
-				mySprite.getMyRandomMoveHandler().move(mySprite,myScreenWidth,myScreenHeight,myScreenXPosition,myScreenYPosition);
+				mySprite.getMyRandomMoveHandler().move(mySprite,myLevel.getRandom(),myScreenWidth,myScreenHeight,myScreenXPosition,myScreenYPosition);
 			}
 		}
 	}
 	
 	private void checkForLoss() {
-
-		for (State s : myLevel.getMainPlayer().getStates()) {
-			if (myLevel.getMainPlayer().getLocation().getYLocation() > myLevel.getHeight()) {
-				myLevel.setLevelLost();
-			}
-			if (s instanceof Health) {
-				if (!(((Health) s).isAlive())
-						|| myLevel.getMainPlayer().getLocation().getYLocation() > myLevel.getHeight()) {
-					myLevel.setLevelLost();
-				}
-			}
+		Player player = myLevel.getMainPlayer();
+		if (player.getStates().isEmpty()) {
+			return;
+		}
+		Health health = player.getState(Health.class);
+		if (player.getLocation().getYLocation() > myLevel.getHeight() || (health != null && !health.isAlive())) {
+			myLevel.setLevelLost();
 		}
 	}
 
 	//
 	private void checkForWin() {
-		for (State s : myLevel.getMainPlayer().getStates()) {
-			if (s instanceof LevelWon) {
-				if (((LevelWon) s).isHasWon()) {
-					myLevel.setLevelWon();
-				}
-			}
+		LevelWon levelWon = myLevel.getMainPlayer().getState(LevelWon.class);
+		if (levelWon != null && levelWon.isHasWon()) {
+			myLevel.setLevelWon();
 		}
 	}
 
 	private void executeCharacteristics() {
-		for (Sprite mySprite : mySpriteList) {
-
-			ListOfCollidingSprites collidingSprites = new ListOfCollidingSprites(mySprite, mySpriteList,
-					mySpriteImages);
-			Map<Sprite, Side> myCollisionMap = collidingSprites.getCollisionSpriteMap();
-			Set<Characteristic> characteristics = mySprite.getCharacteristics();
-			for (Characteristic myCharacteristic : characteristics) {
-				myCharacteristic.execute(myCollisionMap);
-			}
-		}
+		myCharacteristicExecutor.execute(myLevel.getCharacteristicRegistry().getEntries(), myCollisionTable);
 	}
 
 	private void updateSpritePositions() {
-		for (Sprite sprite : mySpriteList) {
-			UpdateLocation updateLocation = new UpdateLocation(sprite, myTimeElapsed);
-			updateLocation.updateSpriteParameters();
-		}
+		KinematicsStore kinematics = myLevel.getKinematics();
+		kinematics.update(mySpriteList);
+		kinematics.integrate(myTimeElapsed);
+		mySweptCollision.resolve(kinematics, myLevel.getBroadphase());
 	}
 	@Override
 	public void generateDefaultKeyPressedMap() {
@@ -21,14 +21,12 @@ public class AddHealth extends PointsChanger implements Action {
 	
 	@Override
 	public void act() {
-		for(State i : spriteAffected.getStates()){
-			if (i instanceof Health){
-				((Health) i).updateState(pointsToGive);
-				if(((Health) i).getMyHealth()<=0){
-					((Health) i).kill();
-				}
+		Health health = spriteAffected.getState(Health.class);
+		if (health != null){
+			health.updateState(pointsToGive);
+			if(health.getMyHealth()<=0){
+				health.kill();
 			}
-			
 		}
 	
 		
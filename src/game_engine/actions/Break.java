@@ -4,7 +4,6 @@ import game_data.Sprite;
 import game_data.sprites.Projectile;
 import game_data.Level;
 import game_data.states.Health;
-import game_data.states.State;
 
 
 public class Break implements Action {
@@ -16,11 +15,9 @@ public class Break implements Action {
 
 	@Override
 	public void act() {
-		for(State myState:myBrokenSprite.getStates()){
-			if (myState instanceof Health){
-				((Health) myState).kill();
-
-			}
+		Health health = myBrokenSprite.getState(Health.class);
+		if (health != null){
+			health.kill();
 		}
 		
 	}
@@ -33,12 +33,7 @@ public class Hit implements Action {
 	@Override
 	public void act() {
 		
-		Physics myPhysics = null;
-		for(State s: myPlayerSprite.getStates()){
-			if(s instanceof Physics){
-				myPhysics = (Physics) s;
-			}
-		}
+		Physics myPhysics = myPlayerSprite.getState(Physics.class);
 		
 		
 		//get new Velocity –– gets horizontal or vertical components to zero
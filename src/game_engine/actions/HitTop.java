@@ -34,12 +34,7 @@ public class HitTop implements Action {
 		//get new Velocity –– gets horizontal or vertical components to zero
 		//setNewVelocity();
 		//setNewAcceleration();
-		Physics mySpritePhysics = null;
-		for(State s: myPlayerSprite.getStates()){
-			if(s instanceof Physics){
-				mySpritePhysics = (Physics) s;
-			}
-		}
+		Physics mySpritePhysics = myPlayerSprite.getState(Physics.class);
 		
 		if(mySide instanceof Top && pastPlatform()){
 			mySide.hitImpassable(myPlayerSprite, mySpritePhysics);
@@ -4,7 +4,6 @@ import game_data.Level;
 import game_data.Sprite;
 import game_data.characteristics.Characteristic;
 import game_data.characteristics.SpeedPowerUpper;
-import game_data.states.State;
 import game_data.states.Vincibility;
 import game_engine.GameResources;
 
@@ -23,16 +22,12 @@ public class Invincibility implements Action {
 	
 	@Override
 	public void act() {
-		boolean hasState = false;
-		for(State state:myPlayerSprite.getStates()){
-//			System.out.println("vincibility changes");
-			if(state instanceof Vincibility){
-				((Vincibility) state).setVincibility(false);
-				hasState = true;
-			}
+		Vincibility vincibility = myPlayerSprite.getState(Vincibility.class);
+		if(vincibility != null){
+			vincibility.setVincibility(false);
 		}
-		if(!hasState){
-			myPlayerSprite.getStates().add(new Vincibility(false));
+		else{
+			myPlayerSprite.addState(new Vincibility(false));
 		}
 	}
 
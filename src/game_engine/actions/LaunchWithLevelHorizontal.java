@@ -26,7 +26,7 @@ public class LaunchWithLevelHorizontal implements Launch{
 	@Override
 	public void act() {
 		boolean right=true;
-		myProjectile=myProjectile.clone();
+		Sprite projectile=myLevel.getProjectilePool().acquire(myProjectile);
 		if(myLauncher.getXVelocity()<0){
 			right=false;
 		}
@@ -35,15 +35,15 @@ public class LaunchWithLevelHorizontal implements Launch{
 		System.out.println(myLauncher.getLocation().getXLocation());
 		System.out.println(myLauncher.getLocation().getYLocation());*/
 		if(right){
-			myProjectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()+20, myLauncher.getLocation().getYLocation()+myLauncher.getHeight()/2);
-			myProjectile.setXVelocity(myVelocity);
+			projectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()+20, myLauncher.getLocation().getYLocation()+myLauncher.getHeight()/2);
+			projectile.setXVelocity(myVelocity);
 		}
 		else{
-			myProjectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()-20, myLauncher.getLocation().getYLocation() + myLauncher.getHeight()/2);
-			myProjectile.setXVelocity(-myVelocity);
+			projectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()-20, myLauncher.getLocation().getYLocation() + myLauncher.getHeight()/2);
+			projectile.setXVelocity(-myVelocity);
 		}
-		myProjectile.setYVelocity(0);
-		myLevel.addNewSprite(myProjectile);		
+		projectile.setYVelocity(0);
+		myLevel.addNewSprite(projectile);		
 	}
 
 	@Override
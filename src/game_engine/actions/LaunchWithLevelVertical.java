@@ -26,7 +26,7 @@ public class LaunchWithLevelVertical implements Launch{
 	@Override
 	public void act() {
 		boolean up=true;
-		myProjectile=myProjectile.clone();
+		Sprite projectile=myLevel.getProjectilePool().acquire(myProjectile);
 		if(myLauncher.getYVelocity()>0){
 			up=false;
 		}
@@ -35,15 +35,15 @@ public class LaunchWithLevelVertical implements Launch{
 		System.out.println(myLauncher.getLocation().getXLocation());
 		System.out.println(myLauncher.getLocation().getYLocation());*/
 		if(up){
-			myProjectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()/2, myLauncher.getLocation().getYLocation()-20);
-			myProjectile.setYVelocity(-myVelocity);
+			projectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()/2, myLauncher.getLocation().getYLocation()-20);
+			projectile.setYVelocity(-myVelocity);
 		}
 		else{
-			myProjectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()/2, myLauncher.getLocation().getYLocation() + myLauncher.getHeight()+20);
-			myProjectile.setYVelocity(myVelocity);
+			projectile.getLocation().setLocation(myLauncher.getLocation().getXLocation()+myLauncher.getWidth()/2, myLauncher.getLocation().getYLocation() + myLauncher.getHeight()+20);
+			projectile.setYVelocity(myVelocity);
 		}
-		myProjectile.setXVelocity(0);
-		myLevel.addNewSprite(myProjectile);		
+		projectile.setXVelocity(0);
+		myLevel.addNewSprite(projectile);		
 	}
 
 	@Override
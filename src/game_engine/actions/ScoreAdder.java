@@ -18,18 +18,10 @@ public class ScoreAdder extends PointsChanger implements Action {
 //		System.out.println("in action");
 //		if(spriteAffected instanceof Player) System.out.println("is a player");
 
-		for(State i : spriteAffected.getStates()){
-
-			if (i instanceof Score){
-//				System.out.println("has score");
-
-				//System.out.println(pointsToGive);
-				((Score) i).updateState(pointsToGive);
-//				if(((Health) i).getMyHealth()<=0){
-//					((Health) i).kill();
-//				}
-			}
-		}	
+		Score score = spriteAffected.getState(Score.class);
+		if (score != null){
+			score.updateState(pointsToGive);
+		}
 	}
 
 	@Override
@@ -2,7 +2,6 @@ package game_engine.actions;
 
 import game_data.Sprite;
 import game_data.states.LevelWon;
-import game_data.states.State;
 
 public class WinLevel implements Action {
 	private Sprite mySprite;
@@ -12,12 +11,9 @@ public class WinLevel implements Action {
 
 	@Override
 	public void act() {
-		for(State s: mySprite.getStates()){
-			if(s instanceof LevelWon){
-				//System.out.println("pooooop");
-				((LevelWon)s).setHasWon(true);
-				//System.out.println(((LevelWon)s).isHasWon());
-			}
+		LevelWon levelWon = mySprite.getState(LevelWon.class);
+		if(levelWon != null){
+			levelWon.setHasWon(true);
 		}
 	}
 
@@ -11,11 +11,11 @@ public class RandomMoveDisjointHandler extends RandomMoveHandler {
 		
 		double newXLoc, newYLoc;
 		if(getOrientation().equals(Orientation.VERTICAL)) {
-			newXLoc = Math.random()*( getScreenWidth() - getSprite().getWidth() );
+			newXLoc = getRandom().nextDouble()*( getScreenWidth() - getSprite().getWidth() );
 			newYLoc = getSprite().getLocation().getYLocation() - getScreenHeight() - getSprite().getHeight();
 		} else {
 			newXLoc = getSprite().getLocation().getXLocation() + getScreenWidth() + getSprite().getWidth();
-			newYLoc = Math.random()*( getScreenHeight() - getSprite().getHeight() );
+			newYLoc = getRandom().nextDouble()*( getScreenHeight() - getSprite().getHeight() );
 		}
 		getSprite().getLocation().setLocation(newXLoc, newYLoc);
 		
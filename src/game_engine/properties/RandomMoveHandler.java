@@ -1,5 +1,9 @@
 package game_engine.properties;
 
+import java.util.Random;
+
+import com.thoughtworks.xstream.annotations.XStreamOmitField;
+
 import game_data.Sprite;
 
 public abstract class RandomMoveHandler {
@@ -10,15 +14,22 @@ public abstract class RandomMoveHandler {
 	private Orientation myOrientation;
 	private Sprite mySprite;
 	private double myScreenWidth, myScreenHeight, myScreenXPosition, myScreenYPosition;
+	@XStreamOmitField
+	private Random myRandom;
 	
 	public RandomMoveHandler(Orientation aOrientation) {
 		myOrientation = aOrientation;
 	}
 	
-	public void move(Sprite aMySprite, double aMyScreenWidth, double aMyScreenHeight, 
+	/**
+	 * @param aRandom - source of the new random location, the Level's own so
+	 *            that a replayed game moves the Sprite to the same place
+	 */
+	public void move(Sprite aMySprite, Random aRandom, double aMyScreenWidth, double aMyScreenHeight, 
 			double aMyScreenXPosition, double aMyScreenYPosition) {
 		
 		mySprite = aMySprite;
+		myRandom = aRandom;
 		myScreenWidth = aMyScreenWidth;
 		myScreenHeight = aMyScreenHeight;
 		myScreenXPosition = aMyScreenXPosition*-1; //switch to different coordinates
@@ -64,5 +75,9 @@ public abstract class RandomMoveHandler {
 	public double getScreenYPosition() {
 		return myScreenYPosition;
 	}
+
+	protected Random getRandom() {
+		return myRandom;
+	}
 	
 }
@@ -0,0 +1,93 @@
+package game_engine.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Records the input of every tick of a game to a replay stream, see
+ * {@link ReplayFormat}. Recording has to start right after the game is loaded,
+ * before its first tick, since a replay starts from a freshly loaded game.
+ */
+public class InputRecorder implements Closeable {
+
+	private final DataOutputStream myOutput;
+	private final Map<KeyCode, Integer> myKeyNumbers;
+	private TickInput myPendingTick;
+	private int myPendingCount;
+
+	/**
+	 * @param aOutput - where the replay is written; closed with the recorder
+	 * @param aStartLevel - index of the Level the game is on
+	 */
+	public InputRecorder(OutputStream aOutput, int aStartLevel) throws IOException {
+		myOutput = new DataOutputStream(new BufferedOutputStream(aOutput));
+		myKeyNumbers = new EnumMap<KeyCode, Integer>(KeyCode.class);
+		myOutput.writeInt(ReplayFormat.MAGIC);
+		myOutput.writeByte(ReplayFormat.VERSION);
+		ReplayFormat.writeCount(myOutput, aStartLevel);
+	}
+
+	public void record(TickInput aTick) throws IOException {
+		if (aTick.equals(myPendingTick)) {
+			myPendingCount++;
+			return;
+		}
+		writePendingTicks();
+		myPendingTick = aTick;
+		myPendingCount = 1;
+	}
+
+	/**
+	 * Writes the last run of ticks and the end of the replay, then closes the
+	 * stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		writePendingTicks();
+		myOutput.writeByte(ReplayFormat.END);
+		myOutput.close();
+	}
+
+	private void writePendingTicks() throws IOException {
+		if (myPendingTick == null) {
+			return;
+		}
+		nameKeys(myPendingTick.getKeysPressed());
+		nameKeys(myPendingTick.getKeysReleased());
+		myOutput.writeByte(ReplayFormat.TICKS);
+		ReplayFormat.writeCount(myOutput, myPendingCount);
+		myOutput.writeDouble(myPendingTick.getTimeElapsed());
+		writeKeys(myPendingTick.getKeysPressed());
+		writeKeys(myPendingTick.getKeysReleased());
+		myOutput.writeDouble(myPendingTick.getScreenHeight());
+		myOutput.writeDouble(myPendingTick.getScreenWidth());
+		myOutput.writeDouble(myPendingTick.getScreenXPosition());
+		myOutput.writeDouble(myPendingTick.getScreenYPosition());
+		myPendingTick = null;
+	}
+
+	private void nameKeys(Set<KeyCode> aKeys) throws IOException {
+		for (KeyCode key : aKeys) {
+			if (!myKeyNumbers.containsKey(key)) {
+				myKeyNumbers.put(key, myKeyNumbers.size());
+				myOutput.writeByte(ReplayFormat.KEY);
+				myOutput.writeUTF(key.name());
+			}
+		}
+	}
+
+	private void writeKeys(Set<KeyCode> aKeys) throws IOException {
+		ReplayFormat.writeCount(myOutput, aKeys.size());
+		for (KeyCode key : aKeys) {
+			ReplayFormat.writeCount(myOutput, myKeyNumbers.get(key));
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package game_engine.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import game_engine.UpdateGame;
+import javafx.scene.input.KeyCode;
+
+/**
+ * Reads a replay stream written by an InputRecorder and feeds it to an engine
+ * tick by tick. Given a freshly loaded copy of the recorded game, the engine
+ * plays the same game again without any display.
+ */
+public class InputReplayer implements Closeable {
+
+	private final DataInputStream myInput;
+	private final int myStartLevel;
+	private final List<KeyCode> myKeys;
+	private TickInput myTick;
+	private int myRemainingTicks;
+	private boolean isFinished;
+
+	/**
+	 * @param aInput - replay to read; closed with the replayer
+	 */
+	public InputReplayer(InputStream aInput) throws IOException {
+		myInput = new DataInputStream(new BufferedInputStream(aInput));
+		myKeys = new ArrayList<KeyCode>();
+		if (myInput.readInt() != ReplayFormat.MAGIC) {
+			throw new IOException("Not a replay");
+		}
+		int version = myInput.readUnsignedByte();
+		if (version != ReplayFormat.VERSION) {
+			throw new IOException("Unsupported replay version " + version);
+		}
+		myStartLevel = ReplayFormat.readCount(myInput);
+	}
+
+	/**
+	 * @return index of the Level the recording started on
+	 */
+	public int getStartLevel() {
+		return myStartLevel;
+	}
+
+	/**
+	 * @return the input of the next tick, or null once the replay is over
+	 */
+	public TickInput next() throws IOException {
+		while (myRemainingTicks == 0) {
+			if (isFinished) {
+				return null;
+			}
+			readRecord();
+		}
+		myRemainingTicks--;
+		return myTick;
+	}
+
+	/**
+	 * Runs every remaining tick of the replay through aUpdater.
+	 * 
+	 * @return number of ticks replayed
+	 */
+	public int replay(UpdateGame aUpdater) throws IOException {
+		int ticks = 0;
+		for (TickInput tick = next(); tick != null; tick = next()) {
+			aUpdater.update(tick.getTimeElapsed(), tick.getKeysPressed(), tick.getKeysReleased(),
+					tick.getScreenHeight(), tick.getScreenWidth(), tick.getScreenXPosition(),
+					tick.getScreenYPosition());
+			ticks++;
+		}
+		return ticks;
+	}
+
+	@Override
+	public void close() throws IOException {
+		myInput.close();
+	}
+
+	private void readRecord() throws IOException {
+		int tag = myInput.readUnsignedByte();
+		if (tag == ReplayFormat.END) {
+			isFinished = true;
+		} else if (tag == ReplayFormat.KEY) {
+			myKeys.add(readKeyCode(myInput.readUTF()));
+		} else if (tag == ReplayFormat.TICKS) {
+			myRemainingTicks = ReplayFormat.readCount(myInput);
+			double timeElapsed = myInput.readDouble();
+			Set<KeyCode> keysPressed = readKeys();
+			Set<KeyCode> keysReleased = readKeys();
+			myTick = new TickInput(timeElapsed, keysPressed, keysReleased, myInput.readDouble(),
+					myInput.readDouble(), myInput.readDouble(), myInput.readDouble());
+		} else {
+			throw new IOException("Unknown replay record " + tag);
+		}
+	}
+
+	private KeyCode readKeyCode(String aName) throws IOException {
+		try {
+			return KeyCode.valueOf(aName);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Unknown key " + aName + " in replay");
+		}
+	}
+
+	private Set<KeyCode> readKeys() throws IOException {
+		Set<KeyCode> keys = EnumSet.noneOf(KeyCode.class);
+		int count = ReplayFormat.readCount(myInput);
+		for (int i = 0; i < count; i++) {
+			int number = ReplayFormat.readCount(myInput);
+			if (number >= myKeys.size()) {
+				throw new IOException("Key " + number + " used before it was named in replay");
+			}
+			keys.add(myKeys.get(number));
+		}
+		return keys;
+	}
+}
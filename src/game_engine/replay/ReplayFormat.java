@@ -0,0 +1,54 @@
+package game_engine.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Layout of a replay stream. After a header holding the index of the Level the
+ * recording starts on, the stream is a sequence of tagged records:
+ * 
+ * KEY - the name of a KeyCode, which gets the next key number; keys are only
+ * named the first time they are used.
+ * 
+ * TICKS - a repeat count followed by one TickInput, with its keys as key
+ * numbers; identical consecutive ticks share one record.
+ * 
+ * END - closes the stream.
+ */
+class ReplayFormat {
+
+	static final int MAGIC = 0x56525031; // "VRP1"
+	static final int VERSION = 1;
+
+	static final int END = 0;
+	static final int KEY = 1;
+	static final int TICKS = 2;
+
+	private ReplayFormat() {
+	}
+
+	/**
+	 * Writes a non-negative int in 7-bit groups, so small counts and key
+	 * numbers take one byte.
+	 */
+	static void writeCount(DataOutput aOutput, int aValue) throws IOException {
+		while ((aValue & ~0x7F) != 0) {
+			aOutput.writeByte((aValue & 0x7F) | 0x80);
+			aValue >>>= 7;
+		}
+		aOutput.writeByte(aValue);
+	}
+
+	static int readCount(DataInput aInput) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int next = aInput.readUnsignedByte();
+			value |= (next & 0x7F) << shift;
+			if ((next & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed count in replay");
+	}
+}
@@ -0,0 +1,91 @@
+package game_engine.replay;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Everything UpdateGame is given for one tick: the time elapsed, the keys
+ * pressed and released and the size and position of the screen, which decides
+ * which Sprites are simulated and where random Sprites reappear.
+ */
+public class TickInput {
+
+	private final double myTimeElapsed;
+	private final Set<KeyCode> myKeysPressed, myKeysReleased;
+	private final double myScreenHeight, myScreenWidth, myScreenXPosition, myScreenYPosition;
+
+	public TickInput(double aTimeElapsed, Set<KeyCode> aKeysPressed, Set<KeyCode> aKeysReleased,
+			double aScreenHeight, double aScreenWidth, double aScreenXPosition, double aScreenYPosition) {
+		myTimeElapsed = aTimeElapsed;
+		myKeysPressed = copy(aKeysPressed);
+		myKeysReleased = copy(aKeysReleased);
+		myScreenHeight = aScreenHeight;
+		myScreenWidth = aScreenWidth;
+		myScreenXPosition = aScreenXPosition;
+		myScreenYPosition = aScreenYPosition;
+	}
+
+	private static Set<KeyCode> copy(Set<KeyCode> aKeys) {
+		Set<KeyCode> keys = EnumSet.noneOf(KeyCode.class);
+		keys.addAll(aKeys);
+		return Collections.unmodifiableSet(keys);
+	}
+
+	public double getTimeElapsed() {
+		return myTimeElapsed;
+	}
+
+	public Set<KeyCode> getKeysPressed() {
+		return myKeysPressed;
+	}
+
+	public Set<KeyCode> getKeysReleased() {
+		return myKeysReleased;
+	}
+
+	public double getScreenHeight() {
+		return myScreenHeight;
+	}
+
+	public double getScreenWidth() {
+		return myScreenWidth;
+	}
+
+	public double getScreenXPosition() {
+		return myScreenXPosition;
+	}
+
+	public double getScreenYPosition() {
+		return myScreenYPosition;
+	}
+
+	/**
+	 * Doubles are compared bit for bit, since a replay has to give the engine
+	 * exactly the values it was given.
+	 */
+	@Override
+	public boolean equals(Object aOther) {
+		if (!(aOther instanceof TickInput)) {
+			return false;
+		}
+		TickInput other = (TickInput) aOther;
+		return sameBits(myTimeElapsed, other.myTimeElapsed) && sameBits(myScreenHeight, other.myScreenHeight)
+				&& sameBits(myScreenWidth, other.myScreenWidth)
+				&& sameBits(myScreenXPosition, other.myScreenXPosition)
+				&& sameBits(myScreenYPosition, other.myScreenYPosition) && myKeysPressed.equals(other.myKeysPressed)
+				&& myKeysReleased.equals(other.myKeysReleased);
+	}
+
+	private static boolean sameBits(double aFirst, double aSecond) {
+		return Double.doubleToLongBits(aFirst) == Double.doubleToLongBits(aSecond);
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(myTimeElapsed) * 31 + Double.hashCode(myScreenXPosition) * 17
+				+ myKeysPressed.hashCode();
+	}
+}
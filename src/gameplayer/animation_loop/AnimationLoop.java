@@ -1,29 +1,111 @@
 package gameplayer.animation_loop;
 
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
 import game_engine.GameResources;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import javafx.animation.AnimationTimer;
 
+/**
+ * Fixed-timestep loop split over two threads. A dedicated simulation thread
+ * adds the real time elapsed since it last woke up to an accumulator and steps
+ * the simulation by the constant SECOND_DELAY until less than one step is left
+ * over. The number of steps per wake-up is bounded so a slow tick cannot
+ * snowball. Rendering runs independently on every JavaFX pulse and is told how
+ * far the simulation has got towards its next step so it can interpolate.
+ */
 public class AnimationLoop {
 
 	private static final double FRAMES_PER_SECOND = GameResources.TIME_FRAME.getDoubleResource();
-    private static final int MILLISECOND_DELAY = (int) (1000 / FRAMES_PER_SECOND);
-    private final double SECOND_DELAY = 1.0 / FRAMES_PER_SECOND;
-	private Timeline myAnimation;
+	private static final long NANOS_PER_STEP = (long) (1e9 / FRAMES_PER_SECOND);
+	private static final long MAX_FRAME_NANOS = (long) (GameResources.MAX_FRAME_TIME.getDoubleResource() * 1e6);
+	private static final int MAX_STEPS_PER_FRAME = (int) GameResources.MAX_STEPS_PER_FRAME.getDoubleResource();
+	private final double SECOND_DELAY = 1.0 / FRAMES_PER_SECOND;
+	private AnimationTimer myAnimation;
+	private Thread mySimulation;
+	private ReentrantLock myStepLock = new ReentrantLock();
+	private volatile long myLastStep;
+	private volatile boolean isRunning;
 	
-	public AnimationLoop() {
-		myAnimation = new Timeline();
+	public void init(IAnimationLoop a) {
+		init(a, interpolation -> {
+		});
 	}
 	
-	public void init(IAnimationLoop a) {
-		KeyFrame frame = new KeyFrame(Duration.millis(MILLISECOND_DELAY), e -> a.init(SECOND_DELAY));
-		myAnimation.setCycleCount(Timeline.INDEFINITE);
-		myAnimation.getKeyFrames().add(frame);
-		myAnimation.play();
+	/**
+	 * @param aStep - called on the simulation thread once per fixed step
+	 * @param aRender - called on the JavaFX thread once per pulse
+	 */
+	public void init(IAnimationLoop aStep, IRenderLoop aRender) {
+		isRunning = true;
+		myLastStep = System.nanoTime();
+		mySimulation = new Thread(() -> simulate(aStep), "simulation");
+		mySimulation.setDaemon(true);
+		myAnimation = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				aRender.render(Math.min(1, (double) (System.nanoTime() - myLastStep) / NANOS_PER_STEP));
+			}
+		};
+		mySimulation.start();
+		myAnimation.start();
+	}
+	
+	/**
+	 * Stops stepping the simulation, the display keeps rendering the last
+	 * frame. Safe to call from either thread.
+	 */
+	public void stopSimulation() {
+		isRunning = false;
+		if (mySimulation != null) {
+			LockSupport.unpark(mySimulation);
+		}
 	}
 	
 	public void stop() {
-		myAnimation.stop();
+		stopSimulation();
+		if (myAnimation != null) {
+			myAnimation.stop();
+		}
+	}
+	
+	/**
+	 * Runs aTask while no simulation step is in progress, e.g. to read or save
+	 * the game from the JavaFX thread.
+	 */
+	public void runBetweenSteps(Runnable aTask) {
+		myStepLock.lock();
+		try {
+			aTask.run();
+		} finally {
+			myStepLock.unlock();
+		}
+	}
+	
+	private void simulate(IAnimationLoop aStep) {
+		long lastWakeUp = System.nanoTime();
+		long accumulator = 0;
+		while (isRunning) {
+			long now = System.nanoTime();
+			accumulator += Math.min(now - lastWakeUp, MAX_FRAME_NANOS);
+			lastWakeUp = now;
+			int steps = 0;
+			while (isRunning && accumulator >= NANOS_PER_STEP && steps < MAX_STEPS_PER_FRAME) {
+				myStepLock.lock();
+				try {
+					aStep.init(SECOND_DELAY);
+				} finally {
+					myStepLock.unlock();
+				}
+				myLastStep = System.nanoTime();
+				accumulator -= NANOS_PER_STEP;
+				steps++;
+			}
+			if (accumulator >= NANOS_PER_STEP) {
+				//too far behind to catch up, drop the backlog instead of running in slow motion forever
+				accumulator %= NANOS_PER_STEP;
+			}
+			LockSupport.parkNanos(NANOS_PER_STEP - accumulator);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package gameplayer.animation_loop;
+
+public interface IRenderLoop {
+	
+	/**
+	 * @param aInterpolation - fraction in [0, 1] of a simulation step that has
+	 *            elapsed since the last step ran
+	 */
+	public void render(double aInterpolation);
+	
+}
@@ -3,13 +3,11 @@ import java.io.File;
 import java.text.DecimalFormat;
 import java.text.MessageFormat;
 import game_data.Game;
-import game_data.Sprite;
-import game_data.states.Health;
-import game_data.states.Score;
-import game_data.states.State;
-import game_data.states.Visible;
 import game_engine.EnginePlayerController;
+import game_engine.FramePublisher;
+import game_engine.FrameSnapshot;
 import game_engine.GameEngine;
+import game_engine.SpriteFrame;
 import game_engine.UpdateGame;
 import gameplayer.animation_loop.AnimationLoop;
 import gameplayer.back_end.exceptions.GameNotFunctionalException;
@@ -40,9 +38,10 @@ public class GamePlayController extends AbstractController {
 	private UserOptions myUserOptions;
 	private SpriteDisplay mySpriteDisplay;
 	private MediaController myMusic;
-	private Score myScore;
-	private Health myHealth;
+	private FramePublisher myFramePublisher;
 	private int myLevel;
+	//written on the JavaFX thread, read by the simulation thread
+	private volatile double myScreenWidth, myScreenHeight, myScreenXPosition, myScreenYPosition;
 
 	public GamePlayController(Stage aStage, File aFile, ApplicationController aAppController, PlayerInformationController aInfoController) throws GameNotFunctionalException {
 		super(aStage);
@@ -65,7 +64,9 @@ public class GamePlayController extends AbstractController {
 		try {
 			myGameEngine = new GameEngine(myGameFile, aLevel);
 			myGameController = myGameEngine.getMyEnginePlayerController();
-			myGameUpdater = new UpdateGame(myGameController.getMyGame());
+			myGameUpdater = myGameEngine.getGameUpdater(true);
+			myFramePublisher = new FramePublisher(myGameController.getMyGame(), myGameUpdater);
+			myFramePublisher.publish();
 		} catch (Exception e) {
 			throw new GameNotFunctionalException(e.getMessage() + getButtonLabels().getString("GameNotFunctionalException"));
 		}
@@ -86,11 +87,12 @@ public class GamePlayController extends AbstractController {
 		initializeScene(myUserOptions);
 		setMenu();
 		try {
-			updateSprites();
+			updateSprites(myFramePublisher.getLatest(), 1);
 		} catch (Exception e) {
 			throw new GameNotFunctionalException(getButtonLabels().getString("GameNotFunctionalException"));
 		}
 		myKeyCodeHandler.addMainPlayer(mySpriteDisplay.getMainPlayer());
+		preloadNextLevel(myFramePublisher.getLatest());
 		initializeAnimation();
 		resetStage(myGamePlayScene);
 		if (myGameController.getMyGame().getAudioFilePath() != null) myMusic = new MediaController(myGameController.getMyGame().getAudioFilePath());
@@ -103,58 +105,83 @@ public class GamePlayController extends AbstractController {
 		} else {
 			myGamePlayScene = new GamePlayScene(myGameController.getMyBackgroundImageFilePath(), getStage().getScene().getWidth(), getStage().getScene().getHeight(), "#fdbe3b");
 		}
-		myGamePlayScene.setKeyHandlers(e -> myKeyCodeHandler.handleKeyPress(e, myGameController.getMyGame().getCurrentLevel().getMainPlayer().getControllable().getMyKeyPressedMap()), e -> myKeyCodeHandler.handleKeyRelease(e));
+		myGamePlayScene.setKeyHandlers(e -> myKeyCodeHandler.handleKeyPress(e, myFramePublisher.getLatest().getKeyPressedMap()), e -> myKeyCodeHandler.handleKeyRelease(e));
 	}
 
 	private void initializeAnimation() {
+		updateScreenPosition();
 		myAnimationLoop = new AnimationLoop();
-		myAnimationLoop.init( elapsedTime -> {
-			resetSprites(elapsedTime);
-			updateScene();
-		});
+		myAnimationLoop.init(elapsedTime -> stepGame(elapsedTime), interpolation -> renderFrame(interpolation));
 	}
 
-	private void updateScene() {
+	/**
+	 * Runs on the simulation thread: advances the game by one tick and
+	 * publishes the result for the display.
+	 */
+	private void stepGame(double elapsedTime) {
+		myKeyCodeHandler.drainInput();
+		myFramePublisher.recordPreviousLocations();
+		myGameUpdater.update(elapsedTime, myKeyCodeHandler.getKeysPressed(), myKeyCodeHandler.getKeysReleased(), 
+				myScreenHeight, myScreenWidth, myScreenXPosition, myScreenYPosition);
 		//the below line makes sure the keys released aren't stored in the set after they're released
 		myKeyCodeHandler.clearReleased();
-		XYMovementHandler movementHandler = new MovementHandlerFactory().buildMovementHandler(myGameController.getMyGame().getCurrentLevel().getMainPlayer().getLocation().getXLocation(), 
-				getStage().getWidth(), myGameController.getMyGame().getCurrentLevel().getMainPlayer().getLocation().getYLocation(), getStage().getHeight(), 
-				myGameController.getMyGame().getScrollType(), myGameController.getMyGame().getCurrentLevel().getMainPlayer().getStates());
-		checkResult();
+		myFramePublisher.publish();
+		if (myGameController.getMyGame().hasWon() || myGameController.getMyGame().hasLost()) {
+			myAnimationLoop.stopSimulation();
+		}
+	}
+
+	private void renderFrame(double aInterpolation) {
+		FrameSnapshot frame = myFramePublisher.getLatest();
+		myGamePlayScene.clearSprites();
+		updateSprites(frame, aInterpolation);
+		updateScene(frame);
+	}
+
+	private void updateScene(FrameSnapshot aFrame) {
+		XYMovementHandler movementHandler = new MovementHandlerFactory().buildMovementHandler(aFrame.getPlayerX(), getStage().getWidth(), 
+				aFrame.getPlayerY(), getStage().getHeight(), aFrame.getScrollType(), aFrame.getScreenRatioTop(), aFrame.getScreenRatioBottom());
+		checkResult(aFrame);
 		myGamePlayScene.moveScreen(movementHandler);
-		if (myGameController.getMyGame().getLevelNumber() != myLevel) {
-			myLevel = myGameController.getMyGame().getLevelNumber();
-			myGamePlayScene.setBackground(myGameController.getMyGame().getCurrentLevel().getBackgroundImageFilePath(), getStage().getWidth(), getStage().getHeight());
+		updateScreenPosition();
+		if (aFrame.getLevelNumber() != myLevel) {
+			myLevel = aFrame.getLevelNumber();
+			myGamePlayScene.setBackground(aFrame.getBackgroundImageFilePath(), getStage().getWidth(), getStage().getHeight());
+			preloadNextLevel(aFrame);
 		}
-		setLevelLabel();
-		setHealthLabel();
-		setScoreLabel();
+		setLevelLabel(aFrame);
+		setHealthLabel(aFrame);
+		setScoreLabel(aFrame);
 	}
 
-	private void checkResult() {
-		if (myGameController.getMyGame().hasLost()) setResultScene(getButtonLabels().getString("YouLost"));
-		if (myGameController.getMyGame().hasWon()) setResultScene(getButtonLabels().getString("YouWon"));
+	/**
+	 * Starts decoding the images of the Level after aFrame's while that one is
+	 * played. The engine collects them, and prepares its own state for that
+	 * Level at the same time.
+	 */
+	private void preloadNextLevel(FrameSnapshot aFrame) {
+		mySpriteDisplay.preloadImages(aFrame.getNextLevelImagePaths());
+		if (aFrame.getNextLevelBackgroundImageFilePath() != null) {
+			myGamePlayScene.preloadBackground(aFrame.getNextLevelBackgroundImageFilePath());
+		}
 	}
 
-	private void resetSprites(double elapsedTime) {
-		myGamePlayScene.clearSprites();
-		myGameUpdater.update(elapsedTime, myKeyCodeHandler.getKeysPressed(), myKeyCodeHandler.getKeysReleased(), mySpriteDisplay.getSpriteMap(), 
-				getStage().getHeight(), getStage().getWidth(), myGamePlayScene.getAnimationScreenXPosition(), myGamePlayScene.getAnimationScreenYPosition());
-		updateSprites();
+	private void updateScreenPosition() {
+		myScreenWidth = getStage().getWidth();
+		myScreenHeight = getStage().getHeight();
+		myScreenXPosition = myGamePlayScene.getAnimationScreenXPosition();
+		myScreenYPosition = myGamePlayScene.getAnimationScreenYPosition();
 	}
 
-	private void updateSprites() {
-		for (Sprite sprite : myGameController.getMyGame().getCurrentLevel().getMySpriteList()) {
-			boolean mapped = false;
-			for (State state : sprite.getStates()) {
-				if (state instanceof Visible) {
-					myGamePlayScene.addImageToView(mySpriteDisplay.getUpdatedSpriteMap(sprite), ((Visible) state).isVisible());
-					mapped = true;
-				}
-			}
-			if(!mapped){
-				myGamePlayScene.addImageToView(mySpriteDisplay.getUpdatedSpriteMap(sprite), true);
-			}
+	private void checkResult(FrameSnapshot aFrame) {
+		if (aFrame.hasLost()) setResultScene(getButtonLabels().getString("YouLost"));
+		if (aFrame.hasWon()) setResultScene(getButtonLabels().getString("YouWon"));
+	}
+
+	private void updateSprites(FrameSnapshot aFrame, double aInterpolation) {
+		mySpriteDisplay.retainSprites(aFrame);
+		for (SpriteFrame sprite : aFrame.getSprites()) {
+			myGamePlayScene.addImageToView(mySpriteDisplay.getUpdatedSpriteMap(sprite, aInterpolation), sprite.isVisible());
 		}
 		if (myKeyCodeHandler.checkNoKeysPressed()) mySpriteDisplay.stopAnimation();
 		else mySpriteDisplay.playAnimation();
@@ -193,38 +220,20 @@ public class GamePlayController extends AbstractController {
 		});
 	}
 
-	private void setHealthLabel() {
-		determineHealth();
-		if (myHealth != null) { myGamePlayScene.addNode(getGUIGenerator().createLabel("Health: " + myHealth.getHealth(), 0, 0), 1);}
-	}
-
-	private void determineHealth() {
-		for (State s : myGameController.getMyGame().getCurrentLevel().getMainPlayer().getStates()) {
-			if (s instanceof Health) {
-				myHealth = (Health) s; 
-			}
-		}
+	private void setHealthLabel(FrameSnapshot aFrame) {
+		if (aFrame.getHealth() != null) { myGamePlayScene.addNode(getGUIGenerator().createLabel("Health: " + aFrame.getHealth(), 0, 0), 1);}
 	}
 
-	private void setScoreLabel() {
-		determineScore();
-		if (myScore != null) {
+	private void setScoreLabel(FrameSnapshot aFrame) {
+		if (aFrame.getScore() != null) {
 			DecimalFormat twoDForm = new DecimalFormat("#.##");
-			Double d = Double.valueOf(twoDForm.format(myScore.getMyScore()));
+			Double d = Double.valueOf(twoDForm.format(aFrame.getScore()));
 			myGamePlayScene.addNode(getGUIGenerator().createLabel("Score: " + d.doubleValue(), 0, 0), 2);
 		}
 	}
 
-	private void determineScore() {
-		for (State s : myGameController.getMyGame().getCurrentLevel().getMainPlayer().getStates()) {
-			if (s instanceof Score) {
-				myScore = (Score) s; 
-			}
-		}
-	}
-
-	private void setLevelLabel() {
-		int level = myGameController.getMyGame().getLevelNumber() + 1;
+	private void setLevelLabel(FrameSnapshot aFrame) {
+		int level = aFrame.getLevelNumber() + 1;
 		myGamePlayScene.addNode(getGUIGenerator().createLabel("Level: " + level, 0, 0), 0);
 	}
 
@@ -252,7 +261,7 @@ public class GamePlayController extends AbstractController {
 	}
 
 	private void saveGame() {
-		LevelManager lm = new LevelManager(myGameController.getMyGame().getLevelNumber());
+		LevelManager lm = new LevelManager(myFramePublisher.getLatest().getLevelNumber());
 		getXMLHandler().save(lm, myGameController.getMyGame().getName() + "levels");
 	}
 
@@ -283,9 +292,9 @@ public class GamePlayController extends AbstractController {
 			try {
 				myApplicationController.publishToFacebook(MessageFormat.format(getButtonLabels().getString("MessageTitle"), 
 						myGameController.getMyGame().getName()), 
-						MessageFormat.format(getButtonLabels().getString("PublishMessage"), myGameController.getMyGame().getName(),  myScore.getMyScore()));
+						MessageFormat.format(getButtonLabels().getString("PublishMessage"), myGameController.getMyGame().getName(),  myFramePublisher.getLatest().getScore()));
 				MessageFormat.format(getButtonLabels().getString("PublishMessage"), 
-						myGameController.getMyGame().getName(), myScore.getMyScore());
+						myGameController.getMyGame().getName(), myFramePublisher.getLatest().getScore());
 			} catch (Exception x) {
 				showError(x);
 			}
@@ -293,10 +302,12 @@ public class GamePlayController extends AbstractController {
 	}
 
 	private void saveHighscore() {
-		if (myScore != null) {
+		Double score = myFramePublisher.getLatest().getScore();
+		if (score != null) {
 			HighscoreManager hm = loadHighscores();
-			hm.setHighscore(getPlayerInformationController().getUser(), myScore.getMyScore(), myGameController.getMyGame());
-			getXMLHandler().save(hm, "highscores");
+			hm.setHighscore(getPlayerInformationController().getUser(), score, myGameController.getMyGame());
+			//the high score keeps the Game itself, so it must not be written out in the middle of a tick
+			myAnimationLoop.runBetweenSteps(() -> getXMLHandler().save(hm, "highscores"));
 		}
 	}
 	/**
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import game_engine.actions.Action;
 import game_engine.actions.MoveLeft;
@@ -14,9 +15,31 @@ import gameplayer.application_controller.KeyCodeTranslator;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 
+/**
+ * Key input is received on the JavaFX thread but consumed by the simulation
+ * thread. The JavaFX side only keeps the set of keys held down for the
+ * display, and queues every key event; the simulation thread applies the
+ * queued events to its own pressed and released sets in
+ * {@link #drainInput()} before each tick.
+ */
 public class KeyCodeHandler {
 
+	private enum KeyAction {
+		PRESS, RELEASE, REMOVE
+	}
+
+	private static class KeyInput {
+		private final KeyCode code;
+		private final KeyAction action;
+
+		private KeyInput(KeyCode aCode, KeyAction aAction) {
+			code = aCode;
+			action = aAction;
+		}
+	}
+
 	private Set<KeyCode> myKeySet;
+	private ConcurrentLinkedQueue<KeyInput> myInputs;
 	private Set<KeyCode> myKeysPressed;
 	private Set<KeyCode> myKeysReleased;
 	private KeyCodeTranslator myKeyCodeTranslator;
@@ -26,6 +49,7 @@ public class KeyCodeHandler {
 		myKeySet = new HashSet<KeyCode>();
 		myKeysPressed = new HashSet<KeyCode>();
 		myKeysReleased = new HashSet<KeyCode>();
+		myInputs = new ConcurrentLinkedQueue<KeyInput>();
 		myMainPlayerImage = new ArrayList<ImageView>();
 		myKeyCodeTranslator = new KeyCodeTranslator(aInput);
 	}
@@ -34,6 +58,7 @@ public class KeyCodeHandler {
 		myKeySet = new HashSet<KeyCode>();
 		myKeysPressed = new HashSet<KeyCode>();
 		myKeysReleased = new HashSet<KeyCode>();
+		myInputs = new ConcurrentLinkedQueue<KeyInput>();
 		myKeyCodeTranslator = new KeyCodeTranslator("Default");
 	}
 
@@ -55,7 +80,25 @@ public class KeyCodeHandler {
 
 	public void remove(KeyCode aKeyCode) {
 		myKeySet.remove(myKeyCodeTranslator.getCode(aKeyCode));
-		myKeysPressed.remove(myKeyCodeTranslator.getCode(aKeyCode));
+		queue(myKeyCodeTranslator.getCode(aKeyCode), KeyAction.REMOVE);
+	}
+
+	/**
+	 * Applies every key event received since the last call to the pressed and
+	 * released sets. Only call this from the simulation thread.
+	 */
+	public void drainInput() {
+		KeyInput input;
+		while ((input = myInputs.poll()) != null) {
+			if (input.action == KeyAction.PRESS) {
+				myKeysPressed.add(input.code);
+			} else if (input.action == KeyAction.RELEASE) {
+				myKeysReleased.add(input.code);
+				myKeysPressed.remove(input.code);
+			} else {
+				myKeysPressed.remove(input.code);
+			}
+		}
 	}
 
 	public void clearReleased() {
@@ -63,7 +106,7 @@ public class KeyCodeHandler {
 	}
 
 	public void handleKeyPress(KeyCode aKeyCode, Map<KeyCode, Action> aKeyMap) {
-		myKeysPressed.add(myKeyCodeTranslator.getCode(aKeyCode));
+		queue(myKeyCodeTranslator.getCode(aKeyCode), KeyAction.PRESS);
 		myKeySet.add(myKeyCodeTranslator.getCode(aKeyCode));
 		
 		KeyCode leftKey = null;
@@ -92,8 +135,11 @@ public class KeyCodeHandler {
 	}
 
 	public void handleKeyRelease(KeyCode aKeyCode) {
-		myKeysReleased.add(myKeyCodeTranslator.getCode(aKeyCode));
+		queue(myKeyCodeTranslator.getCode(aKeyCode), KeyAction.RELEASE);
 		myKeySet.remove(myKeyCodeTranslator.getCode(aKeyCode));
-		myKeysPressed.remove(myKeyCodeTranslator.getCode(aKeyCode));
+	}
+
+	private void queue(KeyCode aKeyCode, KeyAction aAction) {
+		myInputs.offer(new KeyInput(aKeyCode, aAction));
 	}
 }
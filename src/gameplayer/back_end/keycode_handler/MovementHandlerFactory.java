@@ -10,8 +10,6 @@ public class MovementHandlerFactory {
 	
 	public XYMovementHandler buildMovementHandler(double aXLocation, double aScreenWidth, double aYLocation, double aScreenHeight, 
 			ScrollType scrollType, Set<State> set) {
-		double XMovement = 0;
-		double YMovement = 0;
 		double screenRatioTop = .5;
 		double screenRatioBottom = .5;
 		for (State s : set) {
@@ -20,6 +18,13 @@ public class MovementHandlerFactory {
 				screenRatioBottom = ((ScreenRatio) s).getBottomRatio();
 			}
 		}
+		return buildMovementHandler(aXLocation, aScreenWidth, aYLocation, aScreenHeight, scrollType, screenRatioTop, screenRatioBottom);
+	}
+	
+	public XYMovementHandler buildMovementHandler(double aXLocation, double aScreenWidth, double aYLocation, double aScreenHeight, 
+			ScrollType scrollType, double screenRatioTop, double screenRatioBottom) {
+		double XMovement = 0;
+		double YMovement = 0;
 		if (scrollType.equals(ScrollType.HORIZONTAL_LEFT) || scrollType.equals(ScrollType.HORIZONTAL_RIGHT)) {
 			XMovement = calculateMovement(aXLocation, aScreenWidth, screenRatioBottom);
 		} else if (scrollType.equals(ScrollType.VERTICAL_DOWN) || scrollType.equals(ScrollType.VERTICAL_UP)) {
@@ -0,0 +1,221 @@
+package gameplayer.back_end.stored_games;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import util.GameMetadata;
+import util.XMLTranslator;
+
+/**
+ * Name, icon and description of every game file under a folder. The catalog is
+ * kept in an index file in that folder, with the size and modification time
+ * each game file had when it was read, so a game file is only loaded again
+ * once it has changed.
+ */
+public class GameCatalog {
+
+	static final String INDEX_FILE = ".game_catalog";
+	private static final int VERSION = 1;
+
+	private final Path myFolder;
+	private final Map<String, Entry> myEntries;
+	private boolean hasChanged;
+
+	private GameCatalog(Path aFolder, List<Entry> aEntries) {
+		myFolder = aFolder;
+		myEntries = new LinkedHashMap<String, Entry>();
+		for (Entry entry : aEntries) {
+			myEntries.put(entry.myPath, entry);
+		}
+	}
+
+	/**
+	 * @param aFolder - folder holding the game files
+	 * @return the catalog last saved in aFolder, or an empty one if there is
+	 *         none or it cannot be read
+	 */
+	public static GameCatalog load(Path aFolder) {
+		File index = aFolder.resolve(INDEX_FILE).toFile();
+		if (index.isFile()) {
+			try {
+				Index saved = (Index) new XMLTranslator().deserialize(index);
+				if (saved.myVersion == VERSION && saved.myEntries != null) {
+					return new GameCatalog(aFolder, saved.myEntries);
+				}
+			} catch (RuntimeException e) {
+				System.out.println("Trouble reading " + index + ", rebuilding the game catalog");
+			}
+		}
+		return new GameCatalog(aFolder, new ArrayList<Entry>());
+	}
+
+	public Path getFolder() {
+		return myFolder;
+	}
+
+	/**
+	 * Reads every game file under the folder that is new or has changed, and
+	 * drops the entries of game files that are gone.
+	 */
+	public synchronized void refreshAll() throws IOException {
+		List<Path> gameFiles;
+		try (Stream<Path> paths = Files.walk(myFolder)) {
+			gameFiles = paths.filter(path -> isGameFile(path) && Files.isRegularFile(path)).collect(Collectors.toList());
+		}
+		Set<String> present = new HashSet<String>();
+		for (Path gameFile : gameFiles) {
+			refresh(gameFile);
+			present.add(getKey(gameFile));
+		}
+		Iterator<String> keys = myEntries.keySet().iterator();
+		while (keys.hasNext()) {
+			if (!present.contains(keys.next())) {
+				keys.remove();
+				hasChanged = true;
+			}
+		}
+	}
+
+	/**
+	 * Brings the entry of aGameFile up to date, reading it if it is new or has
+	 * changed and dropping the entry if it is gone.
+	 */
+	public synchronized void refresh(Path aGameFile) {
+		String key = getKey(aGameFile);
+		File file = aGameFile.toFile();
+		if (!file.isFile()) {
+			hasChanged |= myEntries.remove(key) != null;
+			return;
+		}
+		Entry entry = myEntries.get(key);
+		if (entry != null && entry.mySize == file.length() && entry.myModified == file.lastModified()) {
+			return;
+		}
+		myEntries.put(key, read(key, file));
+		hasChanged = true;
+	}
+
+	/**
+	 * Drops the entries of the game files that were under aFolder, once it is
+	 * deleted.
+	 */
+	public synchronized void forgetFolder(Path aFolder) {
+		String prefix = getKey(aFolder) + "/";
+		hasChanged |= myEntries.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	/**
+	 * Writes the catalog to its index file if it changed since it was loaded
+	 * or last saved.
+	 *
+	 * @return whether it had changed
+	 */
+	public synchronized boolean save() throws IOException {
+		if (!hasChanged) {
+			return false;
+		}
+		Index index = new Index();
+		index.myVersion = VERSION;
+		index.myEntries = new ArrayList<Entry>(myEntries.values());
+		new XMLTranslator().writeToFile(index, myFolder.resolve(INDEX_FILE).toFile());
+		hasChanged = false;
+		return true;
+	}
+
+	/**
+	 * @return the entries of the files that hold a game
+	 */
+	public synchronized List<Entry> getGames() {
+		List<Entry> games = new ArrayList<Entry>();
+		for (Entry entry : myEntries.values()) {
+			if (entry.isGame()) {
+				games.add(entry);
+			}
+		}
+		return games;
+	}
+
+	static boolean isGameFile(Path aPath) {
+		return aPath.getFileName().toString().endsWith(".xml");
+	}
+
+	private String getKey(Path aGameFile) {
+		return myFolder.relativize(aGameFile).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * Only the metadata at the top level of the game file is read, not the
+	 * Game itself. A file that does not hold a Game gets an entry without a
+	 * name, so it is not tried again until it changes.
+	 */
+	private Entry read(String aKey, File aFile) {
+		Entry entry = new Entry();
+		entry.myPath = aKey;
+		entry.mySize = aFile.length();
+		entry.myModified = aFile.lastModified();
+		try {
+			GameMetadata game = GameMetadata.read(aFile);
+			entry.myName = game.getName();
+			entry.myIconPath = game.getIconPath();
+			entry.myDescription = game.getDescription();
+		} catch (IOException e) {
+			// purposefully empty to prevent the stack trace from being printed
+		}
+		return entry;
+	}
+
+	/**
+	 * What the index file holds.
+	 */
+	private static class Index {
+		private int myVersion;
+		private List<Entry> myEntries;
+	}
+
+	/**
+	 * Catalog metadata of one game file.
+	 */
+	public static class Entry {
+		private String myPath;
+		private long mySize;
+		private long myModified;
+		private String myName;
+		private String myIconPath;
+		private String myDescription;
+
+		/**
+		 * @return path of the game file relative to the catalog's folder, with
+		 *         '/' between names
+		 */
+		public String getPath() {
+			return myPath;
+		}
+
+		public boolean isGame() {
+			return myName != null;
+		}
+
+		public String getName() {
+			return myName;
+		}
+
+		public String getIconPath() {
+			return myIconPath;
+		}
+
+		public String getDescription() {
+			return myDescription;
+		}
+	}
+}
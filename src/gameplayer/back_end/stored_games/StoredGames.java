@@ -2,67 +2,173 @@ package gameplayer.back_end.stored_games;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
-import game_data.Game;
-import util.XMLTranslator;
 
+import com.thoughtworks.xstream.XStreamException;
+
+import util.BinaryTranslator;
+
+/**
+ * The games in XMLGameFiles, as listed by their GameCatalog. The catalog only
+ * loads the game files that are new or changed since it was last saved, and is
+ * kept up to date by a WatchService while the application runs. Alongside it
+ * the binary form of every game is kept current, so games are loaded from that;
+ * see BinaryTranslator.
+ */
 public class StoredGames {
 
-	private Map<String, File> myStoredGameFiles;
-	private Map<String, String> myStoredGameIcons;
-	private Map<String, String> myStoredGameDescriptions;
-	
+	private static final Path GAME_FOLDER = Paths.get("XMLGameFiles");
+
+	private GameCatalog myCatalog;
+
 	public StoredGames() {
-		myStoredGameFiles = new HashMap<String, File>();
-		myStoredGameIcons = new HashMap<String, String> ();
-		myStoredGameDescriptions = new HashMap<String, String>();
+		myCatalog = GameCatalog.load(GAME_FOLDER);
 		getStoredGames();
+		watchStoredGames();
 	}
 
 	private void getStoredGames() {
-		try(Stream<Path> paths = Files.walk(Paths.get("XMLGameFiles"))) {
-			paths.forEach(filePath -> {
-				if (Files.isRegularFile(filePath) && filePath.toUri().toString().endsWith(".xml")) {
-					try {
-						XMLTranslator myTranslator = new XMLTranslator();
-						Game myGame = (Game) myTranslator.loadFromFile(filePath.toFile());
-						addGame(myGame, filePath.toFile());
-					} catch (Exception e) {
-						// purposefully empty to prevent the stack trace from being printed
-					}
-				}
-			});
+		try {
+			myCatalog.refreshAll();
+			myCatalog.save();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	private void addGame(Game aGame, File aGameFilePath) {
-		myStoredGameFiles.put(aGame.getName(), aGameFilePath);
-		myStoredGameIcons.put(aGame.getName(), aGame.getIconPath());
-		myStoredGameDescriptions.put(aGame.getName(), aGame.getDescription());
+	/**
+	 * Updates the catalog on a daemon thread whenever a file in the game
+	 * folder, or in a folder below it, is created, changed or deleted.
+	 */
+	private void watchStoredGames() {
+		try {
+			WatchService watcher = GAME_FOLDER.getFileSystem().newWatchService();
+			register(watcher, GAME_FOLDER);
+			Thread thread = new Thread(() -> watch(watcher), "Stored games watcher");
+			thread.setDaemon(true);
+			thread.start();
+		} catch (IOException e) {
+			System.out.println("Trouble watching " + GAME_FOLDER + ", new games appear after a restart");
+		}
+	}
+
+	private void register(WatchService aWatcher, Path aFolder) throws IOException {
+		try (Stream<Path> paths = Files.walk(aFolder)) {
+			for (Path folder : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+				folder.register(aWatcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+		}
+	}
+
+	private void watch(WatchService aWatcher) {
+		updateBinaryFiles();
+		while (true) {
+			WatchKey key;
+			try {
+				key = aWatcher.take();
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+			Path folder = (Path) key.watchable();
+			try {
+				for (WatchEvent<?> event : key.pollEvents()) {
+					handle(aWatcher, event.kind(), event.kind() == StandardWatchEventKinds.OVERFLOW ? folder
+							: folder.resolve((Path) event.context()));
+				}
+				if (myCatalog.save()) {
+					updateBinaryFiles();
+				}
+			} catch (IOException e) {
+				System.out.println("Trouble updating the game catalog: " + e.getMessage());
+			}
+			key.reset();
+		}
+	}
+
+	/**
+	 * Writes the binary form of every game whose binary file is missing or no
+	 * longer current.
+	 */
+	private void updateBinaryFiles() {
+		BinaryTranslator translator = new BinaryTranslator();
+		for (GameCatalog.Entry entry : myCatalog.getGames()) {
+			Path gameFile = GAME_FOLDER.resolve(entry.getPath());
+			try {
+				translator.update(gameFile.toFile());
+			} catch (IOException | XStreamException e) {
+				System.out.println("Trouble converting " + gameFile + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Refreshes a changed game file on its own. A new folder is watched and
+	 * searched for games, and lost events are made up for by refreshing the
+	 * whole catalog.
+	 */
+	private void handle(WatchService aWatcher, WatchEvent.Kind<?> aKind, Path aPath) throws IOException {
+		if (aKind == StandardWatchEventKinds.OVERFLOW) {
+			myCatalog.refreshAll();
+		} else if (GameCatalog.isGameFile(aPath)) {
+			myCatalog.refresh(aPath);
+		} else if (aKind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(aPath)) {
+			register(aWatcher, aPath);
+			myCatalog.refreshAll();
+		} else if (aKind == StandardWatchEventKinds.ENTRY_DELETE) {
+			myCatalog.forgetFolder(aPath);
+		}
+	}
+
+	/**
+	 * @return the catalogued games by name; of games sharing a name the one
+	 *         catalogued last is kept
+	 */
+	private Map<String, GameCatalog.Entry> getStoredGameEntries() {
+		Map<String, GameCatalog.Entry> games = new LinkedHashMap<String, GameCatalog.Entry>();
+		for (GameCatalog.Entry entry : myCatalog.getGames()) {
+			games.put(entry.getName(), entry);
+		}
+		return games;
 	}
 
 	public File getGameFilePath(String aGamename) {
-		return myStoredGameFiles.get(aGamename);
+		GameCatalog.Entry entry = getStoredGameEntries().get(aGamename);
+		if (entry == null) {
+			return null;
+		}
+		return GAME_FOLDER.resolve(entry.getPath()).toFile();
 	}
-	
+
 	public List<String> getGames() {
-		return new ArrayList<>(myStoredGameFiles.keySet());
+		return new ArrayList<>(getStoredGameEntries().keySet());
 	}
 
 	public List<String> getIcons() {
-		return new ArrayList<>(myStoredGameIcons.values());
+		List<String> icons = new ArrayList<String>();
+		for (GameCatalog.Entry entry : getStoredGameEntries().values()) {
+			icons.add(entry.getIconPath());
+		}
+		return icons;
 	}
-	
+
 	public List<String> getDescriptions() {
-		return new ArrayList<>(myStoredGameDescriptions.values());
+		List<String> descriptions = new ArrayList<String>();
+		for (GameCatalog.Entry entry : getStoredGameEntries().values()) {
+			descriptions.add(entry.getDescription());
+		}
+		return descriptions;
 	}
 }
@@ -22,6 +22,7 @@ public class GamePlayScene extends AbstractPlayerScene {
 	private AnimationPane myGamePlay;
 	private HeadsUpDisplay myHeadsUpDisplay;
 	private Background myBackgroundDisplay;
+	private BackgroundDisplayFactory myBackgroundFactory;
 	private ResultScene myResultScene;
 	
 	public GamePlayScene(String aBackgroundImageFilePath, double aWidth, double aHeight, String aFontColor) {
@@ -31,7 +32,8 @@ public class GamePlayScene extends AbstractPlayerScene {
 	    myScene.getStylesheets().add(file.toURI().toString());
 		myGamePlay = new AnimationPane();
 		myHeadsUpDisplay = new HeadsUpDisplay(aWidth, aHeight, aFontColor);
-		myBackgroundDisplay = new BackgroundDisplayFactory().buildBackgroundDisplay(aBackgroundImageFilePath, aWidth, aHeight);
+		myBackgroundFactory = new BackgroundDisplayFactory();
+		myBackgroundDisplay = myBackgroundFactory.buildBackgroundDisplay(aBackgroundImageFilePath, aWidth, aHeight);
 		myResultScene = new ResultScene();
 		initializeScene();
 	}
@@ -98,9 +100,17 @@ public class GamePlayScene extends AbstractPlayerScene {
 
 	@Override
 	public void setBackground(String aFilePath, double aWidth, double aHeight) {
-		myBackgroundDisplay = new BackgroundDisplayFactory().buildBackgroundDisplay(aFilePath, myStack.getWidth(), myStack.getHeight());
+		myBackgroundDisplay = myBackgroundFactory.buildBackgroundDisplay(aFilePath, myStack.getWidth(), myStack.getHeight());
 		myStack.setBackground(myBackgroundDisplay);
 	}
+	
+	/**
+	 * Starts decoding a background in the background, so a later
+	 * setBackground with the same file does not stall.
+	 */
+	public void preloadBackground(String aFilePath) {
+		myBackgroundFactory.buildBackgroundDisplay(aFilePath, myStack.getWidth(), myStack.getHeight(), true);
+	}
 
 	@Override
 	public void addNode(Node aNode) {
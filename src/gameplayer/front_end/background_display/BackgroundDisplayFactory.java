@@ -23,6 +23,14 @@ public class BackgroundDisplayFactory {
 	}
 	
 	public Background buildBackgroundDisplay(String aFileName, double aWidth, double aHeight)  {//throws FileNotFoundException {
+		return buildBackgroundDisplay(aFileName, aWidth, aHeight, false);
+	}
+	
+	/**
+	 * @param aBackgroundLoading - whether the image is decoded on a background
+	 *            thread instead of before this returns
+	 */
+	public Background buildBackgroundDisplay(String aFileName, double aWidth, double aHeight, boolean aBackgroundLoading) {
 		if (aFileName == null) {
 			return buildBackgroundDisplay(Color.WHITE, aWidth, aHeight);
 		}
@@ -33,7 +41,8 @@ public class BackgroundDisplayFactory {
 					aWidth, 
 					aHeight, 
 					true, 
-					true);
+					true,
+					aBackgroundLoading);
 			BackgroundImage backgroundImage = new BackgroundImage(image, 
 					BackgroundRepeat.NO_REPEAT, 
 					BackgroundRepeat.NO_REPEAT, 
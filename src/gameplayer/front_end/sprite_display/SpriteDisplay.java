@@ -2,53 +2,103 @@ package gameplayer.front_end.sprite_display;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import game_data.Sprite;
 import game_data.sprites.Player;
+import game_engine.FrameSnapshot;
+import game_engine.SpriteFrame;
 import javafx.scene.Node;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.transform.Rotate;
 
 public class SpriteDisplay {
 
 	private Map<Sprite, ImageView> mySpriteViews;
+	private Map<String, Image> myImages;
 	private List<ImageView> myAnimationSpriteImage;
 	private int myCurrentImage; 
 	private boolean myStopAnimation = false;
 	
 	public SpriteDisplay() {
 		mySpriteViews = new HashMap<Sprite, ImageView>();
+		myImages = new HashMap<String, Image>();
 		myAnimationSpriteImage = new ArrayList<ImageView>();
 	}
 	
-	private ImageView buildSpriteDisplay(Sprite aSprite) {
-		ImageView image = new ImageView(new File(aSprite.getImagePath()).toURI().toString());
+	private ImageView buildSpriteDisplay(String aImagePath) {
+		ImageView image = new ImageView(getImage(aImagePath, false));
 		return image;
 	}
 	
-	public ImageView getUpdatedSpriteMap(Sprite aSprite) {
-		ImageView image = checkAnimation(aSprite);
+	/**
+	 * Starts decoding the given images in the background, e.g. those of the
+	 * next Level, so showing its Sprites later does not read from disk.
+	 */
+	public void preloadImages(Collection<String> aImagePaths) {
+		for (String imagePath : aImagePaths) {
+			getImage(imagePath, true);
+		}
+	}
+	
+	private Image getImage(String aImagePath, boolean aBackgroundLoading) {
+		Image image = myImages.get(aImagePath);
+		if (image == null) {
+			image = new Image(new File(aImagePath).toURI().toString(), aBackgroundLoading);
+			myImages.put(aImagePath, image);
+		}
+		return image;
+	}
+	
+	/**
+	 * Drops the views of every Sprite that is not part of aFrame any more.
+	 */
+	public void retainSprites(FrameSnapshot aFrame) {
+		if (mySpriteViews.size() <= aFrame.getSprites().size()) {
+			return;
+		}
+		Set<Sprite> current = Collections.newSetFromMap(new IdentityHashMap<Sprite, Boolean>());
+		for (SpriteFrame frame : aFrame.getSprites()) {
+			current.add(frame.getSprite());
+		}
+		mySpriteViews.keySet().retainAll(current);
+	}
+	
+	public ImageView getUpdatedSpriteMap(SpriteFrame aFrame) {
+		return getUpdatedSpriteMap(aFrame, 1);
+	}
+	
+	/**
+	 * @param aInterpolation - how far between the Sprite's previous and current
+	 *            location it is drawn, 0 being the previous and 1 the current
+	 */
+	public ImageView getUpdatedSpriteMap(SpriteFrame aFrame, double aInterpolation) {
+		ImageView image = checkAnimation(aFrame, aInterpolation);
 		if (image != null) {
 			return image;
 		}
-		if (mySpriteViews.containsKey(aSprite)) {
-			image = mySpriteViews.get(aSprite);
+		if (mySpriteViews.containsKey(aFrame.getSprite())) {
+			image = mySpriteViews.get(aFrame.getSprite());
 		} else {
-			image = buildSpriteDisplay(aSprite);
-			mySpriteViews.put(aSprite, image);
+			image = buildSpriteDisplay(aFrame.getImagePath());
+			mySpriteViews.put(aFrame.getSprite(), image);
 		}
-		setImageProperties(aSprite, image);
+		setImageProperties(aFrame, image, aInterpolation);
 		return image;
 	}
 	
-	private ImageView checkAnimation(Sprite aSprite) {
+	private ImageView checkAnimation(SpriteFrame aFrame, double aInterpolation) {
 		ImageView image = null;
-		if (aSprite instanceof Player) {
+		if (aFrame.getSprite() instanceof Player) {
 			if (myAnimationSpriteImage.size() < 1) {
-				createAnimationSpriteImageList(image, aSprite);
+				createAnimationSpriteImageList(image, aFrame.getImagePath());
 			} else {
 				if (!myStopAnimation) {
 					image = myAnimationSpriteImage.get(myCurrentImage);
@@ -57,19 +107,19 @@ public class SpriteDisplay {
 					} else {
 						myCurrentImage++;
 					}
-					mySpriteViews.put(aSprite, image);
-					setImageProperties(aSprite, image);
+					mySpriteViews.put(aFrame.getSprite(), image);
+					setImageProperties(aFrame, image, aInterpolation);
 				}
 			}
 		}
 		return image;
 	}
 
-	private void createAnimationSpriteImageList(ImageView image, Sprite aSprite) {
+	private void createAnimationSpriteImageList(ImageView image, String aImagePath) {
 		File fileOfAnimation = null;
 		List<ImageView> numberOfImages = new ArrayList<ImageView>();
-		String file = aSprite.getImagePath(); 
-		image = buildSpriteDisplay(aSprite);
+		String file = aImagePath; 
+		image = buildSpriteDisplay(aImagePath);
 		numberOfImages.add(image);
 		myCurrentImage = 0;
 		boolean exist = true;
@@ -108,11 +158,11 @@ public class SpriteDisplay {
 		return mySpriteViews.get(aSprite);
 	}
 
-	private void setImageProperties(Sprite aSprite, ImageView image) {
-		image.setFitWidth(aSprite.getWidth());
-		image.setFitHeight(aSprite.getHeight());
-		image.setX(aSprite.getLocation().getXLocation());
-		image.setY(aSprite.getLocation().getYLocation());
+	private void setImageProperties(SpriteFrame aFrame, ImageView image, double aInterpolation) {
+		image.setFitWidth(aFrame.getWidth());
+		image.setFitHeight(aFrame.getHeight());
+		image.setX(aFrame.getX(aInterpolation));
+		image.setY(aFrame.getY(aInterpolation));
 		image.setRotationAxis(Rotate.Y_AXIS);
 	}
 
@@ -0,0 +1,380 @@
+package util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import com.thoughtworks.xstream.XStreamException;
+
+import util.ObjectCodec.Input;
+import util.ObjectCodec.Output;
+
+/**
+ * Saves and loads an Object in the binary form ObjectCodec writes, which loads
+ * many times faster than the XML XMLTranslator writes and reads back to an
+ * equal object.
+ *
+ * A binary file starts with a header holding the format version, a stamp of
+ * the XML file it was converted from, if any, and the classes the payload
+ * refers to together with a digest of their fields, followed by a checksum of
+ * the payload. A file written before one
+ * of those classes changed is rejected when its header is read, rather than
+ * failing halfway through. A game file is loaded from the binary file next to
+ * it while that is current, and otherwise from XML, after which the binary
+ * file is written again; see {@link #loadFromFile(File)}.
+ */
+public class BinaryTranslator {
+
+	public static final String EXTENSION = ".vgb";
+
+	private static final int MAGIC = 0x56474231; // "VGB1"
+	private static final int VERSION = 3;
+	private static final String DIGEST = "SHA-256";
+	/**
+	 * Where the stamp starts, after the magic number and version
+	 */
+	private static final int STAMP_OFFSET = 5;
+	/**
+	 * How long a file can change within without its modification time
+	 * changing, on the coarsest file systems.
+	 */
+	private static final long MODIFIED_RESOLUTION = 2000;
+	/**
+	 * Digests of the saved classes, which do not change while running, by the
+	 * names of those classes.
+	 */
+	private static final Map<List<String>, byte[]> SCHEMAS = new ConcurrentHashMap<List<String>, byte[]>();
+
+	/**
+	 * @param aXMLFile - game file
+	 * @return where the binary form of aXMLFile is kept
+	 */
+	public static File getBinaryFile(File aXMLFile) {
+		String name = aXMLFile.getName();
+		if (name.endsWith(".xml")) {
+			name = name.substring(0, name.length() - ".xml".length());
+		}
+		return new File(aXMLFile.getParentFile(), name + EXTENSION);
+	}
+
+	/**
+	 * @param aFile - binary file to write
+	 * @param aSource - XML file o was loaded from, or null
+	 */
+	public void writeToFile(Object o, File aFile, File aSource) throws IOException {
+		write(o, aFile, aSource == null ? Stamp.NONE : new Source(aSource).myStamp);
+	}
+
+	/**
+	 * @throws IOException if aFile cannot be read or was not written by this
+	 *             version of BinaryTranslator and the saved classes
+	 */
+	public Object readFromFile(File aFile) throws IOException {
+		Input input = new Input(Files.readAllBytes(aFile.toPath()));
+		return readPayload(input, readHeader(input));
+	}
+
+	/**
+	 * @return whether aBinaryFile can be read and was converted from aXMLFile
+	 *         with its current contents
+	 */
+	public boolean isCurrent(File aBinaryFile, File aXMLFile) {
+		byte[] binary = readIfPresent(aBinaryFile);
+		try {
+			return binary != null && readHeader(new Input(binary)).myStamp.check(aXMLFile) != null;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the binary file next to aXMLFile again, unless it is current.
+	 */
+	public void update(File aXMLFile) throws IOException {
+		if (!isCurrent(getBinaryFile(aXMLFile), aXMLFile)) {
+			Source source = new Source(aXMLFile);
+			write(source.load(), getBinaryFile(aXMLFile), source.myStamp);
+		}
+	}
+
+	/**
+	 * Loads a game file. For an XML file whose binary form next to it is
+	 * current, the binary form is loaded instead. Otherwise the XML file is
+	 * loaded and its binary form written, so the next load is fast; if that
+	 * cannot be written, the XML file is simply loaded again next time.
+	 *
+	 * @param aFile - XML or binary file
+	 * @return Object stored in aFile
+	 * @throws XStreamException if aFile cannot be loaded, or its binary form
+	 *             is current but cannot be read
+	 */
+	public Object loadFromFile(File aFile) {
+		if (aFile.getName().endsWith(EXTENSION)) {
+			try {
+				return readFromFile(aFile);
+			} catch (IOException e) {
+				throw new XStreamException("Trouble reading " + aFile, e);
+			}
+		}
+		File binaryFile = getBinaryFile(aFile);
+		byte[] binary = readIfPresent(binaryFile);
+		if (binary != null) {
+			Input input = new Input(binary);
+			Header header;
+			try {
+				header = readHeader(input);
+			} catch (IOException e) {
+				header = null;
+			}
+			Stamp stamp = header == null ? null : header.myStamp.check(aFile);
+			if (stamp != null) {
+				if (stamp != header.myStamp && stamp.isSettled()) {
+					restamp(binaryFile, binary, stamp);
+				}
+				try {
+					return readPayload(input, header);
+				} catch (IOException e) {
+					throw new XStreamException("Trouble reading " + binaryFile + ", delete it to load " + aFile, e);
+				}
+			}
+		}
+		Source source;
+		try {
+			source = new Source(aFile);
+		} catch (IOException e) {
+			throw new XStreamException("Trouble reading " + aFile, e);
+		}
+		Object game = source.load();
+		try {
+			write(game, binaryFile, source.myStamp);
+		} catch (IOException e) {
+			// purposefully empty, the binary file only makes loading faster
+		}
+		return game;
+	}
+
+	private void write(Object o, File aFile, Stamp aSource) throws IOException {
+		ObjectCodec codec = new ObjectCodec();
+		Output payload = new Output();
+		codec.encode(o, payload);
+		List<String> classNames = codec.getClassNames();
+		Output header = new Output();
+		header.writeInt(MAGIC);
+		header.writeByte(VERSION);
+		aSource.writeTo(header);
+		header.writeVarInt(classNames.size());
+		for (String name : classNames) {
+			header.writeString(name);
+		}
+		header.writeBytes(getSchema(classNames));
+		CRC32 checksum = new CRC32();
+		checksum.update(payload.getBytes(), 0, payload.size());
+		header.writeLong(checksum.getValue());
+		XMLTranslator.replaceFile(aFile, channel -> {
+			OutputStream output = Channels.newOutputStream(channel);
+			output.write(header.getBytes(), 0, header.size());
+			output.write(payload.getBytes(), 0, payload.size());
+		});
+	}
+
+	/**
+	 * @return the contents of aFile, or null if there is no such file or it
+	 *         cannot be read
+	 */
+	private static byte[] readIfPresent(File aFile) {
+		if (!aFile.isFile()) {
+			return null;
+		}
+		try {
+			return Files.readAllBytes(aFile.toPath());
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes aStamp over the stamp in aBinary, once a checksum had to show that
+	 * the XML file is unchanged, so its size and modification time are
+	 * trusted from then on.
+	 */
+	private static void restamp(File aBinaryFile, byte[] aBinary, Stamp aStamp) {
+		Output stamp = new Output();
+		aStamp.writeTo(stamp);
+		byte[] restamped = aBinary.clone();
+		System.arraycopy(stamp.getBytes(), 0, restamped, STAMP_OFFSET, stamp.size());
+		try {
+			XMLTranslator.replaceFile(aBinaryFile, channel -> Channels.newOutputStream(channel).write(restamped));
+		} catch (IOException e) {
+			// purposefully empty, the checksum is compared again next time
+		}
+	}
+
+	/**
+	 * @throws IOException if the stream was not written by this version of
+	 *             BinaryTranslator and the saved classes
+	 */
+	private static Header readHeader(Input aInput) throws IOException {
+		if (aInput.readInt() != MAGIC) {
+			throw new IOException("Not a binary game file");
+		}
+		int version = aInput.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported binary game file version " + version);
+		}
+		Stamp stamp = new Stamp(aInput.readLong(), aInput.readLong(), aInput.readLong(), aInput.readLong());
+		List<String> classNames = new ArrayList<String>();
+		for (int i = aInput.readVarInt(); i > 0; i--) {
+			classNames.add(aInput.readString());
+		}
+		byte[] schema = getSchema(classNames);
+		if (!Arrays.equals(aInput.readBytes(schema.length), schema)) {
+			throw new IOException("Binary game file written before its classes changed");
+		}
+		return new Header(stamp, classNames, aInput.readLong());
+	}
+
+	private static Object readPayload(Input aInput, Header aHeader) throws IOException {
+		if (aInput.checksumRest() != aHeader.myChecksum) {
+			throw new IOException("Binary game file is damaged");
+		}
+		Object o = new ObjectCodec().decode(aHeader.myClassNames, aInput);
+		if (!aInput.isAtEnd()) {
+			throw new IOException("Binary game file goes on after its game");
+		}
+		return o;
+	}
+
+	/**
+	 * @throws IOException if one of aClassNames is no longer there or can no
+	 *             longer be written
+	 */
+	private static byte[] getSchema(List<String> aClassNames) throws IOException {
+		byte[] schema = SCHEMAS.get(aClassNames);
+		if (schema == null) {
+			try {
+				schema = MessageDigest.getInstance(DIGEST)
+						.digest(ObjectCodec.describeClasses(aClassNames).getBytes(StandardCharsets.UTF_8));
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+			SCHEMAS.put(new ArrayList<String>(aClassNames), schema);
+		}
+		return schema;
+	}
+
+	private static long checksum(byte[] aContent) {
+		CRC32 checksum = new CRC32();
+		checksum.update(aContent, 0, aContent.length);
+		return checksum.getValue();
+	}
+
+	private static class Header {
+
+		private final Stamp myStamp;
+		private final List<String> myClassNames;
+		private final long myChecksum;
+
+		Header(Stamp aStamp, List<String> aClassNames, long aChecksum) {
+			myStamp = aStamp;
+			myClassNames = aClassNames;
+			myChecksum = aChecksum;
+		}
+	}
+
+	/**
+	 * Size, modification time and checksum an XML file had when it was read
+	 * at myChecked. Like git's index, a file whose size and modification time
+	 * still match is taken as unchanged without reading it, unless it was
+	 * modified so shortly before myChecked that it could have changed again
+	 * since without its modification time changing.
+	 */
+	private static class Stamp {
+
+		private static final Stamp NONE = new Stamp(-1, -1, -1, -1);
+
+		private final long myLength;
+		private final long myModified;
+		private final long myChecked;
+		private final long myChecksum;
+
+		Stamp(long aLength, long aModified, long aChecked, long aChecksum) {
+			myLength = aLength;
+			myModified = aModified;
+			myChecked = aChecked;
+			myChecksum = aChecksum;
+		}
+
+		void writeTo(Output aOutput) {
+			aOutput.writeLong(myLength);
+			aOutput.writeLong(myModified);
+			aOutput.writeLong(myChecked);
+			aOutput.writeLong(myChecksum);
+		}
+
+		/**
+		 * @return whether the file was modified long enough before it was
+		 *         read for it to have changed since only with a new
+		 *         modification time
+		 */
+		boolean isSettled() {
+			return myModified < myChecked - MODIFIED_RESOLUTION;
+		}
+
+		/**
+		 * @return this stamp if aSource has the size and modification time it
+		 *         had when stamped; a renewed stamp if its checksum shows it
+		 *         has the same contents; or null if it changed
+		 */
+		Stamp check(File aSource) {
+			if (this == NONE || myLength != aSource.length()) {
+				return null;
+			}
+			long modified = aSource.lastModified();
+			if (modified == myModified && isSettled()) {
+				return this;
+			}
+			long checked = System.currentTimeMillis();
+			modified = aSource.lastModified();
+			try {
+				if (myChecksum != checksum(Files.readAllBytes(aSource.toPath()))) {
+					return null;
+				}
+			} catch (IOException e) {
+				return null;
+			}
+			return new Stamp(myLength, modified, checked, myChecksum);
+		}
+	}
+
+	/**
+	 * The contents of an XML file and their stamp
+	 */
+	private static class Source {
+
+		private final byte[] myContent;
+		private final Stamp myStamp;
+
+		Source(File aXMLFile) throws IOException {
+			long checked = System.currentTimeMillis();
+			long modified = aXMLFile.lastModified();
+			myContent = Files.readAllBytes(aXMLFile.toPath());
+			myStamp = new Stamp(myContent.length, modified, checked, checksum(myContent));
+		}
+
+		Object load() {
+			return new XMLTranslator().deserialize(new ByteArrayInputStream(myContent));
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.thoughtworks.xstream.mapper.Mapper;
+import com.thoughtworks.xstream.mapper.MapperWrapper;
+
+/**
+ * Mapper that XMLTranslator wraps around those of XStream, which ObjectCodec
+ * also asks which fields are saved.
+ * Once {@link #freeze()} is called their configuration no longer changes, so
+ * the lookups XStream makes for every element and field it reads or writes
+ * are answered from a cache instead of walking the whole chain of Mappers
+ * each time.
+ *
+ * None of the saved classes has an implicit collection, so that lookup, which
+ * throws and catches an exception for every field, is skipped altogether.
+ */
+@SuppressWarnings("rawtypes")
+class FrozenMapper extends MapperWrapper {
+
+	private volatile boolean isFrozen;
+	private final Map<String, String> mySystemAttributes = new ConcurrentHashMap<String, String>();
+	private final Map<String, String> myAttributes = new ConcurrentHashMap<String, String>();
+	private final ClassValue<Class> myDefaultImplementations = new ClassValue<Class>() {
+		@Override
+		protected Class computeValue(Class<?> aType) {
+			return FrozenMapper.super.defaultImplementationOf(aType);
+		}
+	};
+	private final ClassValue<Boolean> myReferenceables = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> aType) {
+			return FrozenMapper.super.isReferenceable(aType);
+		}
+	};
+	private final ClassValue<Map<String, String>> myRealMembers = new MemberCache<String>();
+	private final ClassValue<Map<String, Boolean>> mySerializedMembers = new MemberCache<Boolean>();
+
+	FrozenMapper(Mapper aWrapped) {
+		super(aWrapped);
+	}
+
+	/**
+	 * Starts answering from the cache. Call once the XStream is configured.
+	 */
+	void freeze() {
+		isFrozen = true;
+	}
+
+	@Override
+	public ImplicitCollectionMapping getImplicitCollectionDefForFieldName(Class aItemType, String aFieldName) {
+		return null;
+	}
+
+	@Override
+	public String aliasForSystemAttribute(String aAttribute) {
+		if (!isFrozen) {
+			return super.aliasForSystemAttribute(aAttribute);
+		}
+		String alias = mySystemAttributes.get(aAttribute);
+		if (alias == null) {
+			alias = super.aliasForSystemAttribute(aAttribute);
+			if (alias != null) {
+				mySystemAttributes.put(aAttribute, alias);
+			}
+		}
+		return alias;
+	}
+
+	@Override
+	public String aliasForAttribute(String aAttribute) {
+		if (!isFrozen) {
+			return super.aliasForAttribute(aAttribute);
+		}
+		String alias = myAttributes.get(aAttribute);
+		if (alias == null) {
+			alias = super.aliasForAttribute(aAttribute);
+			if (alias != null) {
+				myAttributes.put(aAttribute, alias);
+			}
+		}
+		return alias;
+	}
+
+	@Override
+	public Class defaultImplementationOf(Class aType) {
+		if (!isFrozen || aType == null) {
+			return super.defaultImplementationOf(aType);
+		}
+		return myDefaultImplementations.get(aType);
+	}
+
+	@Override
+	public boolean isReferenceable(Class aType) {
+		if (!isFrozen || aType == null) {
+			return super.isReferenceable(aType);
+		}
+		return myReferenceables.get(aType);
+	}
+
+	@Override
+	public String realMember(Class aType, String aSerializedMember) {
+		if (!isFrozen || aType == null) {
+			return super.realMember(aType, aSerializedMember);
+		}
+		Map<String, String> members = myRealMembers.get(aType);
+		String member = members.get(aSerializedMember);
+		if (member == null) {
+			member = super.realMember(aType, aSerializedMember);
+			if (member != null) {
+				members.put(aSerializedMember, member);
+			}
+		}
+		return member;
+	}
+
+	@Override
+	public boolean shouldSerializeMember(Class aType, String aFieldName) {
+		if (!isFrozen || aType == null) {
+			return super.shouldSerializeMember(aType, aFieldName);
+		}
+		Map<String, Boolean> members = mySerializedMembers.get(aType);
+		Boolean shouldSerialize = members.get(aFieldName);
+		if (shouldSerialize == null) {
+			shouldSerialize = super.shouldSerializeMember(aType, aFieldName);
+			members.put(aFieldName, shouldSerialize);
+		}
+		return shouldSerialize;
+	}
+
+	private static class MemberCache<T> extends ClassValue<Map<String, T>> {
+		@Override
+		protected Map<String, T> computeValue(Class<?> aType) {
+			return new ConcurrentHashMap<String, T>();
+		}
+	}
+}
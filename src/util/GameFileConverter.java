@@ -0,0 +1,62 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts game files between XML and the binary format of BinaryTranslator.
+ * Run with the files to convert: every XML file gets a binary file next to
+ * it, and every binary file an XML file.
+ */
+public class GameFileConverter {
+
+	public static void main(String[] args) {
+		GameFileConverter converter = new GameFileConverter();
+		for (String path : args) {
+			try {
+				System.out.println(path + " -> " + converter.convert(new File(path)));
+			} catch (IOException e) {
+				System.out.println("Trouble converting " + path + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @param aFile - XML or binary game file
+	 * @return the file it was converted to
+	 */
+	public File convert(File aFile) throws IOException {
+		if (aFile.getName().endsWith(BinaryTranslator.EXTENSION)) {
+			return toXML(aFile);
+		}
+		return toBinary(aFile);
+	}
+
+	/**
+	 * @return the binary file next to aXMLFile, which is loaded in its place
+	 *         until aXMLFile changes
+	 */
+	public File toBinary(File aXMLFile) throws IOException {
+		File binaryFile = BinaryTranslator.getBinaryFile(aXMLFile);
+		Object game = new XMLTranslator().deserialize(aXMLFile);
+		new BinaryTranslator().writeToFile(game, binaryFile, aXMLFile);
+		return binaryFile;
+	}
+
+	/**
+	 * Writes aBinaryFile as XML next to it and marks aBinaryFile as converted
+	 * from that XML file.
+	 *
+	 * @return the XML file
+	 */
+	public File toXML(File aBinaryFile) throws IOException {
+		String name = aBinaryFile.getName();
+		name = name.substring(0, name.length() - BinaryTranslator.EXTENSION.length());
+		File xmlFile = new File(aBinaryFile.getParentFile(), name + ".xml");
+		BinaryTranslator binaryTranslator = new BinaryTranslator();
+		Object game = binaryTranslator.readFromFile(aBinaryFile);
+		new XMLTranslator().writeToFile(game, xmlFile);
+		binaryTranslator.writeToFile(game, aBinaryFile, xmlFile);
+		return xmlFile;
+	}
+}
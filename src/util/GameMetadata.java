@@ -0,0 +1,131 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Name, description, icon and number of levels of a game file, read straight
+ * from the XML that XMLTranslator writes for a Game. The file is read as a
+ * stream of tokens and no game objects are created; the levels are only
+ * counted, and reading stops once every field has been found.
+ */
+public class GameMetadata {
+
+	private static final String GAME_ELEMENT = "game__data.Game";
+	private static final String NAME_ELEMENT = "name";
+	private static final String LEVELS_ELEMENT = "myLevels";
+	private static final String DESCRIPTION_ELEMENT = "myDescription";
+	private static final String ICON_ELEMENT = "myIconPath";
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private String myName;
+	private String myDescription;
+	private String myIconPath;
+	private int myLevelCount = -1;
+
+	private GameMetadata() {
+	}
+
+	/**
+	 * @param aFile - XML game file
+	 * @throws IOException if aFile cannot be read or does not hold a Game
+	 */
+	public static GameMetadata read(File aFile) throws IOException {
+		try (InputStream input = new BufferedInputStream(new FileInputStream(aFile), XMLTranslator.BUFFER_SIZE)) {
+			XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+			try {
+				return read(reader);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("Trouble reading " + aFile + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static GameMetadata read(XMLStreamReader aReader) throws XMLStreamException, IOException {
+		if (aReader.nextTag() != XMLStreamConstants.START_ELEMENT || !GAME_ELEMENT.equals(aReader.getLocalName())) {
+			throw new IOException("Not a game file");
+		}
+		GameMetadata metadata = new GameMetadata();
+		while (!metadata.isComplete() && aReader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String field = aReader.getLocalName();
+			if (NAME_ELEMENT.equals(field)) {
+				metadata.myName = aReader.getElementText();
+			} else if (DESCRIPTION_ELEMENT.equals(field)) {
+				metadata.myDescription = aReader.getElementText();
+			} else if (ICON_ELEMENT.equals(field)) {
+				metadata.myIconPath = aReader.getElementText();
+			} else if (LEVELS_ELEMENT.equals(field)) {
+				metadata.myLevelCount = countChildren(aReader);
+			} else {
+				skipElement(aReader);
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Skips the children of the current element up to its end tag.
+	 *
+	 * @return how many children it has
+	 */
+	private static int countChildren(XMLStreamReader aReader) throws XMLStreamException {
+		int count = 0;
+		while (aReader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			skipElement(aReader);
+			count++;
+		}
+		return count;
+	}
+
+	private static void skipElement(XMLStreamReader aReader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = aReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+	private boolean isComplete() {
+		return myName != null && myDescription != null && myIconPath != null && myLevelCount >= 0;
+	}
+
+	public String getName() {
+		return myName;
+	}
+
+	public String getDescription() {
+		return myDescription;
+	}
+
+	public String getIconPath() {
+		return myIconPath;
+	}
+
+	/**
+	 * @return number of Levels in the game, or 0 if it has none
+	 */
+	public int getLevelCount() {
+		return Math.max(myLevelCount, 0);
+	}
+}
@@ -0,0 +1,653 @@
+package util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+/**
+ * Writes an object graph as numbers and reads it back, for BinaryTranslator.
+ * The objects XStream saves field by field are saved with the same fields
+ * here, as decided by the Mapper of XMLTranslator, but a field is written as
+ * its value alone, in an order fixed by its class, and numbers are written as
+ * numbers instead of text. Strings, boxed numbers, enums and the collections
+ * XStream has converters for are written by kind; other classes are refused
+ * when written rather than saved differently from XMLTranslator.
+ *
+ * Every class is written once as a name and then referred to by its index in
+ * {@link #getClassNames()}. Objects seen before, and equal Strings, are
+ * written as the index they were given when first written.
+ */
+final class ObjectCodec {
+
+	private static final int NULL = 0;
+	private static final int REFERENCE = 1;
+	private static final int FIRST_CLASS = 2;
+
+	private static final XStream XSTREAM = XMLTranslator.XSTREAM;
+	private static final Map<Class<?>, Layout> LAYOUTS = new ConcurrentHashMap<Class<?>, Layout>();
+
+	private final List<Layout> myClasses = new ArrayList<Layout>();
+
+	/**
+	 * @return the names of the classes the payload refers to, by index
+	 */
+	List<String> getClassNames() {
+		List<String> names = new ArrayList<String>(myClasses.size());
+		for (Layout layout : myClasses) {
+			names.add(layout.myType.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * @return a digest of what the payload relies on about aClassNames: the
+	 *         fields each saved class has, and the constants of each enum
+	 * @throws IOException if one of them is no longer there or can no longer
+	 *             be written
+	 */
+	static String describeClasses(List<String> aClassNames) throws IOException {
+		StringBuilder description = new StringBuilder();
+		for (String name : aClassNames) {
+			Class<?> type;
+			try {
+				type = Class.forName(name, false, ObjectCodec.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Binary game file refers to missing class " + name, e);
+			}
+			description.append(getLayout(type)).append('\n');
+		}
+		return description.toString();
+	}
+
+	/**
+	 * Writes o to aOutput, noting the classes it refers to.
+	 */
+	void encode(Object o, Output aOutput) throws IOException {
+		new Encoder(aOutput).writeValue(o);
+	}
+
+	/**
+	 * @param aClassNames - the classes the payload refers to, by index, as
+	 *            {@link #getClassNames()} returned them when it was written
+	 */
+	Object decode(List<String> aClassNames, Input aInput) throws IOException {
+		myClasses.clear();
+		for (String name : aClassNames) {
+			try {
+				myClasses.add(getLayout(Class.forName(name, false, ObjectCodec.class.getClassLoader())));
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Binary game file refers to missing class " + name, e);
+			}
+		}
+		return new Decoder(aInput).readValue();
+	}
+
+	private static Layout getLayout(Class<?> aType) throws IOException {
+		Layout layout = LAYOUTS.get(aType);
+		if (layout == null) {
+			layout = new Layout(aType);
+			LAYOUTS.put(aType, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 * How the objects of a class are written. The objects of a referenced
+	 * kind are numbered as they are written, so later ones can refer to them.
+	 */
+	private enum Kind {
+		FIELDS(true), ENUM(false), STRING(true), BOOLEAN(false), BYTE(false), CHARACTER(false), SHORT(false),
+		INTEGER(false), LONG(false), FLOAT(false), DOUBLE(false), COLLECTION(true), SORTED_SET(true), MAP(true),
+		SORTED_MAP(true);
+
+		private final boolean isReferenced;
+
+		Kind(boolean aReferenced) {
+			isReferenced = aReferenced;
+		}
+	}
+
+	private static final Map<Class<?>, Kind> KINDS = new HashMap<Class<?>, Kind>();
+	static {
+		KINDS.put(String.class, Kind.STRING);
+		KINDS.put(Boolean.class, Kind.BOOLEAN);
+		KINDS.put(Byte.class, Kind.BYTE);
+		KINDS.put(Character.class, Kind.CHARACTER);
+		KINDS.put(Short.class, Kind.SHORT);
+		KINDS.put(Integer.class, Kind.INTEGER);
+		KINDS.put(Long.class, Kind.LONG);
+		KINDS.put(Float.class, Kind.FLOAT);
+		KINDS.put(Double.class, Kind.DOUBLE);
+		KINDS.put(ArrayList.class, Kind.COLLECTION);
+		KINDS.put(LinkedList.class, Kind.COLLECTION);
+		KINDS.put(HashSet.class, Kind.COLLECTION);
+		KINDS.put(LinkedHashSet.class, Kind.COLLECTION);
+		KINDS.put(TreeSet.class, Kind.SORTED_SET);
+		KINDS.put(HashMap.class, Kind.MAP);
+		KINDS.put(LinkedHashMap.class, Kind.MAP);
+		KINDS.put(TreeMap.class, Kind.SORTED_MAP);
+	}
+
+	/**
+	 * The kind of a class and, for a class saved field by field, the fields
+	 * XStream saves, ordered by declaring class and name.
+	 */
+	private static class Layout {
+
+		private final Class<?> myType;
+		private final Kind myKind;
+		private final Field[] myFields;
+		private final Object[] myConstants;
+
+		Layout(Class<?> aType) throws IOException {
+			myType = aType;
+			Kind kind = KINDS.get(aType);
+			if (kind == null && aType.isEnum()) {
+				kind = Kind.ENUM;
+			} else if (kind == null
+					&& XSTREAM.getConverterLookup().lookupConverterForType(aType) instanceof ReflectionConverter) {
+				kind = Kind.FIELDS;
+			} else if (kind == null) {
+				throw new IOException("Cannot write " + aType.getName() + " to a binary game file");
+			}
+			myKind = kind;
+			myConstants = kind == Kind.ENUM ? aType.getEnumConstants() : null;
+			List<Field> fields = new ArrayList<Field>();
+			if (kind == Kind.FIELDS) {
+				Mapper mapper = XSTREAM.getMapper();
+				for (Class<?> declaring = aType; declaring != null; declaring = declaring.getSuperclass()) {
+					List<Field> declared = new ArrayList<Field>();
+					for (Field field : declaring.getDeclaredFields()) {
+						int modifiers = field.getModifiers();
+						if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+								&& mapper.shouldSerializeMember(declaring, field.getName())) {
+							field.setAccessible(true);
+							declared.add(field);
+						}
+					}
+					declared.sort(Comparator.comparing(Field::getName));
+					fields.addAll(declared);
+				}
+			}
+			myFields = fields.toArray(new Field[fields.size()]);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder description = new StringBuilder(myType.getName()).append(' ').append(myKind);
+			for (Field field : myFields) {
+				description.append(' ').append(field.getDeclaringClass().getName()).append('.')
+						.append(field.getName()).append(':').append(field.getType().getName());
+			}
+			if (myConstants != null) {
+				for (Object constant : myConstants) {
+					description.append(' ').append(((Enum<?>) constant).name());
+				}
+			}
+			return description.toString();
+		}
+	}
+
+	private class Encoder {
+
+		private final Output myOutput;
+		private final Map<Class<?>, Integer> myClassIndices = new HashMap<Class<?>, Integer>();
+		private final Map<Object, Integer> myObjects = new IdentityHashMap<Object, Integer>();
+		private final Map<Object, Integer> myStrings = new HashMap<Object, Integer>();
+		private int myNextIndex;
+
+		Encoder(Output aOutput) {
+			myOutput = aOutput;
+		}
+
+		void writeValue(Object aValue) throws IOException {
+			if (aValue == null) {
+				myOutput.writeVarInt(NULL);
+				return;
+			}
+			Map<Object, Integer> seen = aValue instanceof String ? myStrings : myObjects;
+			Integer index = seen.get(aValue);
+			if (index != null) {
+				myOutput.writeVarInt(REFERENCE);
+				myOutput.writeVarInt(index);
+				return;
+			}
+			Class<?> type = aValue instanceof Enum ? ((Enum<?>) aValue).getDeclaringClass() : aValue.getClass();
+			Layout layout = getLayout(type);
+			myOutput.writeVarInt(FIRST_CLASS + getClassIndex(layout));
+			if (layout.myKind.isReferenced) {
+				seen.put(aValue, myNextIndex++);
+			}
+			switch (layout.myKind) {
+			case FIELDS:
+				writeFields(aValue, layout.myFields);
+				break;
+			case ENUM:
+				myOutput.writeVarInt(((Enum<?>) aValue).ordinal());
+				break;
+			case STRING:
+				myOutput.writeString((String) aValue);
+				break;
+			case BOOLEAN:
+				myOutput.writeByte((Boolean) aValue ? 1 : 0);
+				break;
+			case BYTE:
+				myOutput.writeByte((Byte) aValue);
+				break;
+			case CHARACTER:
+				myOutput.writeVarInt((Character) aValue);
+				break;
+			case SHORT:
+				myOutput.writeSignedVarInt((Short) aValue);
+				break;
+			case INTEGER:
+				myOutput.writeSignedVarInt((Integer) aValue);
+				break;
+			case LONG:
+				myOutput.writeLong((Long) aValue);
+				break;
+			case FLOAT:
+				myOutput.writeInt(Float.floatToRawIntBits((Float) aValue));
+				break;
+			case DOUBLE:
+				myOutput.writeLong(Double.doubleToRawLongBits((Double) aValue));
+				break;
+			case SORTED_SET:
+				writeValue(((TreeSet<?>) aValue).comparator());
+				writeElements((Collection<?>) aValue);
+				break;
+			case COLLECTION:
+				writeElements((Collection<?>) aValue);
+				break;
+			case SORTED_MAP:
+				writeValue(((TreeMap<?, ?>) aValue).comparator());
+				writeEntries((Map<?, ?>) aValue);
+				break;
+			case MAP:
+				writeEntries((Map<?, ?>) aValue);
+				break;
+			}
+		}
+
+		private int getClassIndex(Layout aLayout) {
+			Integer index = myClassIndices.get(aLayout.myType);
+			if (index == null) {
+				index = myClasses.size();
+				myClasses.add(aLayout);
+				myClassIndices.put(aLayout.myType, index);
+			}
+			return index;
+		}
+
+		private void writeFields(Object aObject, Field[] aFields) throws IOException {
+			try {
+				for (Field field : aFields) {
+					Class<?> type = field.getType();
+					if (!type.isPrimitive()) {
+						writeValue(field.get(aObject));
+					} else if (type == double.class) {
+						myOutput.writeLong(Double.doubleToRawLongBits(field.getDouble(aObject)));
+					} else if (type == int.class) {
+						myOutput.writeSignedVarInt(field.getInt(aObject));
+					} else if (type == boolean.class) {
+						myOutput.writeByte(field.getBoolean(aObject) ? 1 : 0);
+					} else if (type == long.class) {
+						myOutput.writeLong(field.getLong(aObject));
+					} else if (type == float.class) {
+						myOutput.writeInt(Float.floatToRawIntBits(field.getFloat(aObject)));
+					} else if (type == short.class) {
+						myOutput.writeSignedVarInt(field.getShort(aObject));
+					} else if (type == char.class) {
+						myOutput.writeVarInt(field.getChar(aObject));
+					} else {
+						myOutput.writeByte(field.getByte(aObject));
+					}
+				}
+			} catch (IllegalAccessException e) {
+				throw new IOException(e);
+			}
+		}
+
+		private void writeElements(Collection<?> aCollection) throws IOException {
+			myOutput.writeVarInt(aCollection.size());
+			for (Object element : aCollection) {
+				writeValue(element);
+			}
+		}
+
+		private void writeEntries(Map<?, ?> aMap) throws IOException {
+			myOutput.writeVarInt(aMap.size());
+			for (Map.Entry<?, ?> entry : aMap.entrySet()) {
+				writeValue(entry.getKey());
+				writeValue(entry.getValue());
+			}
+		}
+	}
+
+	private class Decoder {
+
+		private final Input myInput;
+		private final List<Object> myObjects = new ArrayList<Object>();
+
+		Decoder(Input aInput) {
+			myInput = aInput;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Object readValue() throws IOException {
+			int tag = myInput.readVarInt();
+			if (tag == NULL) {
+				return null;
+			}
+			if (tag == REFERENCE) {
+				int index = myInput.readVarInt();
+				if (index >= myObjects.size()) {
+					throw new IOException("Binary game file refers to a missing object");
+				}
+				return myObjects.get(index);
+			}
+			if (tag - FIRST_CLASS >= myClasses.size()) {
+				throw new IOException("Binary game file refers to a missing class");
+			}
+			Layout layout = myClasses.get(tag - FIRST_CLASS);
+			switch (layout.myKind) {
+			case FIELDS:
+				Object object = XSTREAM.getReflectionProvider().newInstance(layout.myType);
+				myObjects.add(object);
+				readFields(object, layout.myFields);
+				return object;
+			case ENUM:
+				int ordinal = myInput.readVarInt();
+				if (ordinal >= layout.myConstants.length) {
+					throw new IOException("Binary game file refers to a missing " + layout.myType.getName());
+				}
+				return layout.myConstants[ordinal];
+			case STRING:
+				String string = myInput.readString();
+				myObjects.add(string);
+				return string;
+			case BOOLEAN:
+				return myInput.readByte() != 0;
+			case BYTE:
+				return (byte) myInput.readByte();
+			case CHARACTER:
+				return (char) myInput.readVarInt();
+			case SHORT:
+				return (short) myInput.readSignedVarInt();
+			case INTEGER:
+				return myInput.readSignedVarInt();
+			case LONG:
+				return myInput.readLong();
+			case FLOAT:
+				return Float.intBitsToFloat(myInput.readInt());
+			case DOUBLE:
+				return Double.longBitsToDouble(myInput.readLong());
+			case SORTED_SET:
+				int setIndex = reserve();
+				TreeSet set = new TreeSet((Comparator) readValue());
+				myObjects.set(setIndex, set);
+				readElements(set);
+				return set;
+			case COLLECTION:
+				Collection collection;
+				if (layout.myType == ArrayList.class) {
+					collection = new ArrayList();
+				} else if (layout.myType == LinkedHashSet.class) {
+					collection = new LinkedHashSet();
+				} else if (layout.myType == HashSet.class) {
+					collection = new HashSet();
+				} else {
+					collection = new LinkedList();
+				}
+				myObjects.add(collection);
+				readElements(collection);
+				return collection;
+			case SORTED_MAP:
+				int mapIndex = reserve();
+				TreeMap sortedMap = new TreeMap((Comparator) readValue());
+				myObjects.set(mapIndex, sortedMap);
+				readEntries(sortedMap);
+				return sortedMap;
+			case MAP:
+				Map map = layout.myType == LinkedHashMap.class ? new LinkedHashMap() : new HashMap();
+				myObjects.add(map);
+				readEntries(map);
+				return map;
+			default:
+				throw new IllegalStateException(layout.myKind.name());
+			}
+		}
+
+		/**
+		 * Keeps the index of an object whose constructor needs values read
+		 * before it, so they number the same as when written.
+		 */
+		private int reserve() {
+			myObjects.add(null);
+			return myObjects.size() - 1;
+		}
+
+		private void readFields(Object aObject, Field[] aFields) throws IOException {
+			try {
+				for (Field field : aFields) {
+					Class<?> type = field.getType();
+					if (!type.isPrimitive()) {
+						field.set(aObject, readValue());
+					} else if (type == double.class) {
+						field.setDouble(aObject, Double.longBitsToDouble(myInput.readLong()));
+					} else if (type == int.class) {
+						field.setInt(aObject, myInput.readSignedVarInt());
+					} else if (type == boolean.class) {
+						field.setBoolean(aObject, myInput.readByte() != 0);
+					} else if (type == long.class) {
+						field.setLong(aObject, myInput.readLong());
+					} else if (type == float.class) {
+						field.setFloat(aObject, Float.intBitsToFloat(myInput.readInt()));
+					} else if (type == short.class) {
+						field.setShort(aObject, (short) myInput.readSignedVarInt());
+					} else if (type == char.class) {
+						field.setChar(aObject, (char) myInput.readVarInt());
+					} else {
+						field.setByte(aObject, (byte) myInput.readByte());
+					}
+				}
+			} catch (IllegalAccessException | IllegalArgumentException e) {
+				throw new IOException("Binary game file does not fit the fields of "
+						+ aObject.getClass().getName(), e);
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void readElements(Collection aCollection) throws IOException {
+			for (int i = myInput.readVarInt(); i > 0; i--) {
+				aCollection.add(readValue());
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void readEntries(Map aMap) throws IOException {
+			for (int i = myInput.readVarInt(); i > 0; i--) {
+				Object key = readValue();
+				aMap.put(key, readValue());
+			}
+		}
+	}
+
+	/**
+	 * Growing byte array written to without locking
+	 */
+	static class Output {
+
+		private byte[] myBytes = new byte[XMLTranslator.BUFFER_SIZE];
+		private int mySize;
+
+		byte[] getBytes() {
+			return myBytes;
+		}
+
+		int size() {
+			return mySize;
+		}
+
+		private void ensure(int aLength) {
+			if (mySize + aLength > myBytes.length) {
+				myBytes = Arrays.copyOf(myBytes, Math.max(myBytes.length * 2, mySize + aLength));
+			}
+		}
+
+		void writeByte(int aValue) {
+			ensure(1);
+			myBytes[mySize++] = (byte) aValue;
+		}
+
+		void writeBytes(byte[] aBytes) {
+			ensure(aBytes.length);
+			System.arraycopy(aBytes, 0, myBytes, mySize, aBytes.length);
+			mySize += aBytes.length;
+		}
+
+		void writeInt(int aValue) {
+			ensure(4);
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				myBytes[mySize++] = (byte) (aValue >>> shift);
+			}
+		}
+
+		void writeLong(long aValue) {
+			ensure(8);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				myBytes[mySize++] = (byte) (aValue >>> shift);
+			}
+		}
+
+		/**
+		 * Writes a non-negative int in seven bit groups, low group first.
+		 */
+		void writeVarInt(int aValue) {
+			ensure(5);
+			while ((aValue & ~0x7f) != 0) {
+				myBytes[mySize++] = (byte) (aValue & 0x7f | 0x80);
+				aValue >>>= 7;
+			}
+			myBytes[mySize++] = (byte) aValue;
+		}
+
+		void writeSignedVarInt(int aValue) {
+			writeVarInt(aValue << 1 ^ aValue >> 31);
+		}
+
+		void writeString(String aValue) {
+			byte[] bytes = aValue.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			writeBytes(bytes);
+		}
+	}
+
+	/**
+	 * Reads what Output wrote from a byte array, without locking
+	 */
+	static class Input {
+
+		private final byte[] myBytes;
+		private int myPosition;
+
+		Input(byte[] aBytes) {
+			myBytes = aBytes;
+		}
+
+		/**
+		 * @return checksum of the bytes that are left to read
+		 */
+		long checksumRest() {
+			CRC32 checksum = new CRC32();
+			checksum.update(myBytes, myPosition, myBytes.length - myPosition);
+			return checksum.getValue();
+		}
+
+		boolean isAtEnd() {
+			return myPosition == myBytes.length;
+		}
+
+		private void require(int aLength) throws IOException {
+			if (aLength < 0 || myBytes.length - myPosition < aLength) {
+				throw new IOException("Binary game file ends early");
+			}
+		}
+
+		int readByte() throws IOException {
+			require(1);
+			return myBytes[myPosition++];
+		}
+
+		byte[] readBytes(int aLength) throws IOException {
+			require(aLength);
+			byte[] bytes = Arrays.copyOfRange(myBytes, myPosition, myPosition + aLength);
+			myPosition += aLength;
+			return bytes;
+		}
+
+		int readInt() throws IOException {
+			require(4);
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				value = value << 8 | myBytes[myPosition++] & 0xff;
+			}
+			return value;
+		}
+
+		long readLong() throws IOException {
+			require(8);
+			long value = 0;
+			for (int i = 0; i < 8; i++) {
+				value = value << 8 | myBytes[myPosition++] & 0xff;
+			}
+			return value;
+		}
+
+		int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				int group = readByte();
+				value |= (group & 0x7f) << shift;
+				if (group >= 0) {
+					return value;
+				}
+			}
+			throw new IOException("Binary game file has a malformed number");
+		}
+
+		int readSignedVarInt() throws IOException {
+			int value = readVarInt();
+			return value >>> 1 ^ -(value & 1);
+		}
+
+		String readString() throws IOException {
+			int length = readVarInt();
+			require(length);
+			String value = new String(myBytes, myPosition, length, StandardCharsets.UTF_8);
+			myPosition += length;
+			return value;
+		}
+	}
+}
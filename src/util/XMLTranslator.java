@@ -1,18 +1,69 @@
 package util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.io.xml.DomDriver;
+import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
+import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
+import com.thoughtworks.xstream.io.xml.StaxDriver;
+import com.thoughtworks.xstream.mapper.MapperWrapper;
+
+import game_data.GameObject;
+import game_data.Level;
+import game_data.Sprite;
+import game_data.characteristics.Breakable;
+import game_data.characteristics.Launcher;
+import game_data.characteristics.TemporalPowerUpper;
+import game_engine.properties.RandomMoveHandler;
 
 /**
  * Saves and loads an Object using XStream serialization to/from a file
  * 
+ * Every XMLTranslator shares one XStream, configured once when the class is
+ * loaded, so its converters and reflection caches are built only once. Files
+ * are read with a streaming StAX parser and written in the same indented form
+ * as before. Annotations are processed up front instead of being detected
+ * while serializing, which is what makes the shared XStream safe to use from
+ * several threads.
+ * 
  * @author Addison
  */
 public class XMLTranslator {
+
+	static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * Every class in src that uses an XStream annotation. Annotations are not
+	 * detected while serializing, so a class missing here has its annotations
+	 * silently ignored; XStreamAnnotationsTest fails when this list falls out
+	 * of sync with src.
+	 */
+	static final Class<?>[] ANNOTATED_CLASSES = { GameObject.class, Level.class, Sprite.class, Breakable.class,
+			TemporalPowerUpper.class, RandomMoveHandler.class };
+	/**
+	 * Also decides what ObjectCodec saves of an object.
+	 */
+	static final XStream XSTREAM = createXStream(new StaxDriver());
 	
 
 	/**
@@ -22,9 +73,16 @@ public class XMLTranslator {
 	 * @return String of XML representation of serialized Object
 	 */
 	public String serialize(Object o){
-		XStream mySerializer = new XStream(new DomDriver());
-		mySerializer.autodetectAnnotations(true);;
-		return mySerializer.toXML(o);
+		StringWriter writer = new StringWriter();
+		serialize(o, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Writes the XML representation of o to aWriter, which is left open
+	 */
+	public void serialize(Object o, Writer aWriter){
+		XSTREAM.marshal(o, new PrettyPrintWriter(aWriter));
 	}
 
 	/**
@@ -45,23 +103,103 @@ public class XMLTranslator {
 	 */
 	public File saveToFile(Object o, File aFile){
 		try {
-			FileWriter fw = new FileWriter(aFile);
-			fw.write(this.serialize(o));
-			fw.close();
+			writeToFile(o, aFile);
 		} catch (IOException e) {
 			System.out.println("Trouble printing XML to file");
 		}
 		return aFile;
 	}
 
+	/**
+	 * Streams the XML of o into a temporary file next to aFile, which replaces
+	 * aFile once it is complete and on disk. Should saving fail or be cut
+	 * short, aFile still holds what it held before.
+	 * 
+	 * @param o - Object to serialize
+	 * @param aFile - file to save
+	 * @throws IOException if the file could not be written
+	 */
+	public void writeToFile(Object o, File aFile) throws IOException {
+		replaceFile(aFile, channel -> {
+			Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+			serialize(o, writer);
+			writer.flush();
+		});
+	}
+
+	/**
+	 * Writes aContent into a temporary file next to aFile, forces it to disk and
+	 * then moves it over aFile. Every save gets a temporary file of its own,
+	 * so saves to the same file cannot write into each other's. The temporary
+	 * file takes over the permissions of the file it replaces.
+	 */
+	static void replaceFile(File aFile, FileContent aContent) throws IOException {
+		Path target = aFile.toPath().toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+		try {
+			copyPermissions(target, temp);
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				aContent.writeTo(channel);
+				channel.force(true);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static void copyPermissions(Path aFrom, Path aTo) throws IOException {
+		if (Files.exists(aFrom) && Files.getFileStore(aTo).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Files.setPosixFilePermissions(aTo, Files.getPosixFilePermissions(aFrom));
+		}
+	}
+
+	/**
+	 * Sets and Maps stored without a class attribute are loaded as
+	 * LinkedHashSet and LinkedHashMap, so they iterate in the order they were
+	 * saved instead of in an order that depends on identity hash codes.
+	 * Counters that timers have replaced are skipped when files saved before
+	 * are loaded. The Mapper lookups are cached once it is configured; see
+	 * FrozenMapper. Only the annotations of ANNOTATED_CLASSES are processed,
+	 * so that list must be kept in sync with the annotated classes in src.
+	 */
+	static XStream createXStream(HierarchicalStreamDriver aDriver){
+		XStream mySerializer = new XStream(aDriver) {
+			@Override
+			protected MapperWrapper wrapMapper(MapperWrapper aNext) {
+				return new FrozenMapper(aNext);
+			}
+		};
+		mySerializer.processAnnotations(ANNOTATED_CLASSES);
+		mySerializer.addDefaultImplementation(LinkedHashSet.class, Set.class);
+		mySerializer.addDefaultImplementation(LinkedHashMap.class, Map.class);
+		mySerializer.omitField(Breakable.class, "timeSinceHit");
+		mySerializer.omitField(Launcher.class, "myCurrentTime");
+		((FrozenMapper) mySerializer.getMapper().lookupMapperOfType(FrozenMapper.class)).freeze();
+		return mySerializer;
+	}
+
 	/**
 	 * @param aFile - to deserialize
 	 * @return Object representation of what is stored in .xml file
 	 */
 	public Object deserialize(File aFile){
-		XStream mySerializer = new XStream(new DomDriver());
-		mySerializer.autodetectAnnotations(true);
-		return mySerializer.fromXML(aFile);
+		try (InputStream input = new BufferedInputStream(new FileInputStream(aFile))) {
+			return deserialize(input);
+		} catch (IOException e) {
+			throw new XStreamException("Trouble reading " + aFile, e);
+		}
+	}
+
+	/**
+	 * @param aInput - XML to deserialize, which is not closed
+	 */
+	Object deserialize(InputStream aInput){
+		return XSTREAM.fromXML(aInput);
 	}
 	
 	/**
@@ -69,9 +207,7 @@ public class XMLTranslator {
 	 * @return Object representation of XMLString
 	 */
 	public Object deserialize(String aXMLString){
-		XStream mySerializer = new XStream(new DomDriver());
-		mySerializer.autodetectAnnotations(true);
-		return mySerializer.fromXML(aXMLString);
+		return XSTREAM.fromXML(new StringReader(aXMLString));
 	}
 
 	/**
@@ -91,4 +227,11 @@ public class XMLTranslator {
 	public Object loadFromFile(File aFile){
 		return deserialize(aFile);
 	}
+
+	/**
+	 * What {@link XMLTranslator#replaceFile(File, FileContent)} writes
+	 */
+	interface FileContent {
+		void writeTo(FileChannel aChannel) throws IOException;
+	}
 }
@@ -0,0 +1,14 @@
+package game_data;
+
+/**
+ * Lets tests in other packages read how many Locations have been constructed.
+ */
+public class LocationCounter {
+
+	private LocationCounter() {
+	}
+
+	public static long constructed() {
+		return Location.getConstructedCount();
+	}
+}
@@ -0,0 +1,93 @@
+package game_engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import game_data.Location;
+import game_data.Sprite;
+import game_data.sprites.Terrain;
+
+/**
+ * Compares the queries of a SpatialGrid with a brute-force search over every
+ * Sprite while Sprites are moved, removed and inserted again, which makes its
+ * cells be added, removed and rehashed.
+ */
+public class SpatialGridTest {
+
+	private static final double CELL_SIZE = 32;
+	private static final int SPRITES = 400;
+	private static final int STEPS = 2000;
+
+	@Test
+	public void queriesMatchBruteForce() {
+		Random random = new Random(42);
+		SpatialGrid grid = new SpatialGrid(CELL_SIZE);
+		List<Sprite> sprites = new ArrayList<Sprite>();
+		Set<Sprite> indexed = new HashSet<Sprite>();
+		for (int i = 0; i < SPRITES; i++) {
+			Sprite sprite = new Terrain(randomLocation(random), 1 + random.nextInt(80), 1 + random.nextInt(80), 0, 0,
+					"terrain" + i, "");
+			sprites.add(sprite);
+			grid.insert(sprite);
+			indexed.add(sprite);
+		}
+		BoundingBox region = new BoundingBox();
+		List<Sprite> buffer = new ArrayList<Sprite>();
+		for (int step = 0; step < STEPS; step++) {
+			Sprite sprite = sprites.get(random.nextInt(SPRITES));
+			int action = random.nextInt(3);
+			if (action == 0 && indexed.remove(sprite)) {
+				grid.remove(sprite);
+			} else if (action == 1 && indexed.add(sprite)) {
+				grid.insert(sprite);
+			} else {
+				Location location = randomLocation(random);
+				sprite.setLocation(location.getXLocation(), location.getYLocation());
+				grid.update(indexed);
+			}
+			Location corner = randomLocation(random);
+			region.setBounds(corner.getXLocation(), corner.getYLocation(), random.nextInt(400), random.nextInt(400));
+			Sprite excluded = sprites.get(random.nextInt(SPRITES));
+			assertEquals(bruteForce(indexed, region, excluded), names(grid.query(region, excluded, buffer)));
+		}
+	}
+
+	private Location randomLocation(Random aRandom) {
+		return new Location(aRandom.nextInt(4000) - 2000, aRandom.nextInt(4000) - 2000);
+	}
+
+	private List<String> bruteForce(Set<Sprite> aSprites, BoundingBox aRegion, Sprite aExcluded) {
+		List<Sprite> found = new ArrayList<Sprite>();
+		BoundingBox bounds = new BoundingBox();
+		for (Sprite sprite : aSprites) {
+			bounds.setBounds(sprite);
+			if (sprite != aExcluded && cell(bounds.getMinX()) <= cell(aRegion.getMaxX())
+					&& cell(aRegion.getMinX()) <= cell(bounds.getMaxX()) && cell(bounds.getMinY()) <= cell(aRegion.getMaxY())
+					&& cell(aRegion.getMinY()) <= cell(bounds.getMaxY())) {
+				found.add(sprite);
+			}
+		}
+		return names(found);
+	}
+
+	private int cell(double aCoordinate) {
+		return (int) Math.floor(aCoordinate / CELL_SIZE);
+	}
+
+	private List<String> names(List<Sprite> aSprites) {
+		List<String> names = new ArrayList<String>();
+		for (Sprite sprite : aSprites) {
+			names.add(sprite.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+}
@@ -0,0 +1,87 @@
+package game_engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import game_data.Game;
+import game_data.Location;
+import game_data.LocationCounter;
+import javafx.scene.input.KeyCode;
+import util.XMLTranslator;
+
+/**
+ * Checks that stepping a loaded game through the headless
+ * UpdateGame.update(...) constructs no Locations once it has warmed up, by
+ * reading Location's construction count around the steady-state ticks. The
+ * game is stepped without notifying listeners, as it is without a display.
+ */
+public class SteadyStateAllocationTest {
+
+	/**
+	 * Bundled games that are still running after the warm-up and steady-state
+	 * ticks with the keys pressed by {@link #step(Game, UpdateGame, int)}.
+	 */
+	private static final String[] GAMES = { "XMLGameFiles/Mario.xml", "XMLGameFiles/blockdudeFinal.xml",
+			"XMLGameFiles/Demo_SpaceInvaders.xml", "XMLGameFiles/RCD_demo.xml", "XMLGameFiles/BubblePang.xml" };
+	/**
+	 * Long enough for every ProjectilePool to hold as many projectiles as are
+	 * ever in flight at once.
+	 */
+	private static final int WARM_UP_TICKS = 600;
+	private static final int TICKS = 600;
+	private static final int TICKS_PER_KEY = 10;
+
+	@Test
+	public void steadyStateTicksConstructNoLocations() {
+		for (String file : GAMES) {
+			long start = LocationCounter.constructed();
+			Game game = (Game) new XMLTranslator().loadFromFile(new File(file));
+			UpdateGame updater = new GameEngine(game).getGameUpdater();
+			updater.setNotifying(false);
+			step(game, updater, WARM_UP_TICKS);
+			long warmedUp = LocationCounter.constructed();
+			int ticks = step(game, updater, TICKS);
+			long during = LocationCounter.constructed() - warmedUp;
+			assertFalse(file + " constructed no Locations at all, so the counter is not in place", warmedUp == start);
+			assertEquals(file + " ended before it was stepped " + TICKS + " ticks", TICKS, ticks);
+			assertEquals(file + " constructed Locations while stepping", 0, during);
+		}
+	}
+
+	/**
+	 * Holds each of the main player's keys in turn for {@link #TICKS_PER_KEY}
+	 * ticks.
+	 * 
+	 * @return the number of ticks stepped before the game ended
+	 */
+	private int step(Game aGame, UpdateGame aUpdater, int aTicks) {
+		List<KeyCode> keys = new ArrayList<KeyCode>(
+				aGame.getCurrentLevel().getMainPlayer().getControllable().getMyKeyPressedMap().keySet());
+		Collections.sort(keys);
+		int tick = 0;
+		for (; tick < aTicks && !aGame.hasWon() && !aGame.hasLost(); tick++) {
+			Set<KeyCode> pressed = new HashSet<KeyCode>();
+			Set<KeyCode> released = new HashSet<KeyCode>();
+			if (!keys.isEmpty()) {
+				int key = tick / TICKS_PER_KEY;
+				pressed.add(keys.get(key % keys.size()));
+				if (tick % TICKS_PER_KEY == 0) {
+					released.add(keys.get((key + keys.size() - 1) % keys.size()));
+				}
+			}
+			Location player = aGame.getCurrentLevel().getMainPlayer().getLocation();
+			aUpdater.update(1.0 / 60, pressed, released, 600, 800, 400 - player.getXLocation(),
+					300 - player.getYLocation());
+		}
+		return tick;
+	}
+}
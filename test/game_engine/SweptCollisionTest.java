@@ -0,0 +1,60 @@
+package game_engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import game_data.Level;
+import game_data.Location;
+import game_data.characteristics.Impassable;
+import game_data.sprites.Player;
+import game_data.sprites.Projectile;
+import game_data.sprites.Terrain;
+import game_data.states.Physics;
+
+/**
+ * Fast Sprites that the overlap test alone let pass through thin Terrain
+ * within one step.
+ */
+public class SweptCollisionTest {
+
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void fallingPlayerLandsOnThinFloorAtLowTickRate() {
+		Level level = new Level("floor", 4000, 4000, "");
+		Player player = new Player(new Location(100, 0), 30, 30, 0, 1600, "player", "");
+		player.addState(new Physics(1000, 0));
+		level.addNewSprite(player);
+		level.addNewSprite(impassable(new Terrain(new Location(0, 400), 400, 8, 0, 0, "floor", "")));
+		step(level, 15, 15);
+		assertEquals("player should rest on top of the 8 px floor", 400 - 30, player.getLocation().getYLocation(),
+				DELTA);
+	}
+
+	@Test
+	public void fastProjectileStopsAtThinWall() {
+		Level level = new Level("wall", 4000, 4000, "");
+		level.addNewSprite(new Player(new Location(100, 0), 30, 30, 0, 0, "player", ""));
+		Projectile projectile = new Projectile(new Location(500, 100), 10, 10, 1600, 0, "projectile", "");
+		level.addNewSprite(projectile);
+		level.addNewSprite(impassable(new Terrain(new Location(700, 0), 6, 300, 0, 0, "wall", "")));
+		step(level, 60, 60);
+		assertEquals("projectile should stop against the 6 px wall", 700 - 10, projectile.getLocation().getXLocation(),
+				DELTA);
+	}
+
+	private Terrain impassable(Terrain aTerrain) {
+		aTerrain.addCharacteristic(new Impassable(aTerrain));
+		return aTerrain;
+	}
+
+	private void step(Level aLevel, double aTicksPerSecond, int aTicks) {
+		UpdateStates updater = new UpdateStates(aLevel, false, true);
+		for (int tick = 0; tick < aTicks; tick++) {
+			updater.update(1 / aTicksPerSecond, new HashSet<>(), new HashSet<>(), 600, 800, 0, 0);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package game_engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Timers that move down between wheels, cancellation of timers sharing a
+ * slot, and handles of timers that have fired or were cancelled.
+ */
+public class TimingWheelTest {
+
+	private static final int SLOTS = 64;
+
+	@Test
+	public void dueTimesCrossingWheelsFireOnTime() {
+		long[] delays = { 1, SLOTS - 1, SLOTS, SLOTS + 1, SLOTS * SLOTS - 1, SLOTS * SLOTS, SLOTS * SLOTS + 1,
+				SLOTS * SLOTS * SLOTS + 5, SLOTS * SLOTS * SLOTS * SLOTS + 5 };
+		for (long start : new long[] { 0, 37, SLOTS * SLOTS - 3 }) {
+			TimingWheel wheel = new TimingWheel();
+			advance(wheel, start);
+			List<Long> fired = new ArrayList<Long>();
+			for (long delay : delays) {
+				wheel.schedule(delay, () -> fired.add(wheel.getTick()));
+			}
+			advance(wheel, delays[delays.length - 1]);
+			List<Long> expected = new ArrayList<Long>();
+			for (long delay : delays) {
+				expected.add(start + delay);
+			}
+			assertEquals("timers scheduled at tick " + start, expected, fired);
+			assertEquals(0, wheel.size());
+		}
+	}
+
+	@Test
+	public void cancellingLeavesTheOtherTimersOfItsSlot() {
+		TimingWheel wheel = new TimingWheel();
+		List<String> fired = new ArrayList<String>();
+		long first = wheel.schedule(10, () -> fired.add("first"));
+		long middle = wheel.schedule(10, () -> fired.add("middle"));
+		long last = wheel.schedule(10, () -> fired.add("last"));
+		assertTrue(wheel.cancel(middle));
+		long reused = wheel.schedule(10, () -> fired.add("reused"));
+		assertTrue(wheel.cancel(first));
+		assertTrue(wheel.cancel(last));
+		wheel.schedule(10, () -> fired.add("after"));
+		advance(wheel, 10);
+		assertEquals(2, fired.size());
+		assertEquals("reused", fired.get(0));
+		assertEquals("after", fired.get(1));
+		assertFalse(wheel.isScheduled(reused));
+	}
+
+	@Test
+	public void staleHandlesDoNotReachReusedTimers() {
+		TimingWheel wheel = new TimingWheel();
+		int[] fired = new int[2];
+		long expired = wheel.schedule(1, () -> fired[0]++);
+		advance(wheel, 1);
+		long cancelled = wheel.schedule(5, () -> fired[0]++);
+		assertTrue(wheel.cancel(cancelled));
+		long current = wheel.schedule(3, () -> fired[1]++);
+		for (long stale : new long[] { expired, cancelled, TimingWheel.NO_TIMER }) {
+			assertFalse(wheel.isScheduled(stale));
+			assertEquals(-1, wheel.getRemaining(stale));
+			assertFalse(wheel.cancel(stale));
+		}
+		assertEquals(3, wheel.getRemaining(current));
+		advance(wheel, 3);
+		assertEquals(1, fired[0]);
+		assertEquals(1, fired[1]);
+	}
+
+	/**
+	 * Schedules and cancels at random, also from callbacks, and checks every
+	 * timer fires exactly on its deadline.
+	 */
+	@Test
+	public void randomTimersFireOnTheirDeadlines() {
+		Random random = new Random(7);
+		TimingWheel wheel = new TimingWheel();
+		Map<Long, Long> deadlines = new HashMap<Long, Long>();
+		List<Long> handles = new ArrayList<Long>();
+		int[] fired = new int[1];
+		for (int tick = 0; tick < 20000; tick++) {
+			for (int i = random.nextInt(4); i > 0; i--) {
+				schedule(wheel, random, deadlines, handles, fired, true);
+			}
+			if (!handles.isEmpty() && random.nextInt(3) == 0) {
+				long handle = handles.remove(random.nextInt(handles.size()));
+				assertEquals(deadlines.remove(handle) != null, wheel.cancel(handle));
+			}
+			wheel.advance();
+			assertEquals(deadlines.size(), wheel.size());
+		}
+		assertTrue(fired[0] > 0);
+		for (long deadline : deadlines.values()) {
+			assertTrue("a timer missed its deadline", deadline > wheel.getTick());
+		}
+	}
+
+	private void schedule(TimingWheel aWheel, Random aRandom, Map<Long, Long> aDeadlines, List<Long> aHandles,
+			int[] aFired, boolean aReschedules) {
+		long delay = 1 + (aRandom.nextBoolean() ? aRandom.nextInt(SLOTS * 2) : aRandom.nextInt(SLOTS * SLOTS * 2));
+		long deadline = aWheel.getTick() + delay;
+		long[] handle = new long[1];
+		handle[0] = aWheel.schedule(delay, () -> {
+			assertEquals(deadline, aWheel.getTick());
+			assertEquals(Long.valueOf(deadline), aDeadlines.remove(handle[0]));
+			aFired[0]++;
+			if (aReschedules) {
+				schedule(aWheel, aRandom, aDeadlines, aHandles, aFired, false);
+			}
+		});
+		aDeadlines.put(handle[0], deadline);
+		aHandles.add(handle[0]);
+	}
+
+	private void advance(TimingWheel aWheel, long aTicks) {
+		for (long tick = 0; tick < aTicks; tick++) {
+			aWheel.advance();
+		}
+	}
+}
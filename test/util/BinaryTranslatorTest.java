@@ -0,0 +1,90 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.thoughtworks.xstream.XStreamException;
+
+import game_data.Game;
+
+/**
+ * Checks that binary game files load back to the games they were written from,
+ * and are only loaded while they are current.
+ */
+public class BinaryTranslatorTest {
+
+	private static final File GAME_FOLDER = new File("XMLGameFiles");
+	private static final long LONG_AGO = 60000;
+
+	@Rule
+	public TemporaryFolder myFolder = new TemporaryFolder();
+
+	@Test
+	public void everyStoredGameReadsBackEqual() throws IOException {
+		XMLTranslator xmlTranslator = new XMLTranslator();
+		BinaryTranslator binaryTranslator = new BinaryTranslator();
+		File[] games = GAME_FOLDER.listFiles((folder, name) -> name.endsWith(".xml"));
+		assertTrue("No games found in " + GAME_FOLDER.getAbsolutePath(), games.length > 0);
+		for (File game : games) {
+			Object loaded = xmlTranslator.loadFromFile(game);
+			File binaryFile = new File(myFolder.getRoot(), game.getName() + BinaryTranslator.EXTENSION);
+			binaryTranslator.writeToFile(loaded, binaryFile, game);
+			assertEquals(game.getName(), xmlTranslator.serialize(loaded),
+					xmlTranslator.serialize(binaryTranslator.readFromFile(binaryFile)));
+		}
+	}
+
+	@Test
+	public void changedGameFileIsLoadedAgain() throws IOException {
+		File xmlFile = copyGame("AlexDemo.xml");
+		BinaryTranslator translator = new BinaryTranslator();
+		translator.loadFromFile(xmlFile);
+		File binaryFile = BinaryTranslator.getBinaryFile(xmlFile);
+		assertTrue(translator.isCurrent(binaryFile, xmlFile));
+
+		long modified = xmlFile.lastModified();
+		String xml = new String(Files.readAllBytes(xmlFile.toPath()), StandardCharsets.UTF_8);
+		xml = xml.replaceFirst("<name>AlexDemo", "<name>AlexDem0");
+		Files.write(xmlFile.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+		xmlFile.setLastModified(modified);
+		assertFalse(translator.isCurrent(binaryFile, xmlFile));
+		assertEquals("AlexDem0", ((Game) translator.loadFromFile(xmlFile)).getName());
+		assertTrue(translator.isCurrent(binaryFile, xmlFile));
+	}
+
+	@Test
+	public void damagedBinaryFileIsReported() throws IOException {
+		File xmlFile = copyGame("AlexDemo.xml");
+		xmlFile.setLastModified(System.currentTimeMillis() - LONG_AGO);
+		BinaryTranslator translator = new BinaryTranslator();
+		translator.loadFromFile(xmlFile);
+		File binaryFile = BinaryTranslator.getBinaryFile(xmlFile);
+		byte[] binary = Files.readAllBytes(binaryFile.toPath());
+		binary[binary.length - 1] ^= 1;
+		Files.write(binaryFile.toPath(), binary);
+		try {
+			translator.loadFromFile(xmlFile);
+			fail("Loaded a damaged binary game file");
+		} catch (XStreamException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(binaryFile.getName()));
+		}
+	}
+
+	private File copyGame(String aName) throws IOException {
+		File copy = new File(myFolder.getRoot(), aName);
+		Files.copy(Paths.get(GAME_FOLDER.getPath(), aName), copy.toPath());
+		return copy;
+	}
+}
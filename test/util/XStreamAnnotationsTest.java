@@ -0,0 +1,67 @@
+package util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Checks that every class in src that uses an XStream annotation is in
+ * {@link XMLTranslator#ANNOTATED_CLASSES}, since annotations are not detected
+ * while serializing.
+ */
+public class XStreamAnnotationsTest {
+
+	private static final Path SOURCE = Paths.get("src");
+	private static final Pattern ANNOTATION = Pattern.compile("^\\s*@XStream\\w+", Pattern.MULTILINE);
+
+	@Test
+	public void everyAnnotatedClassIsProcessed() throws IOException {
+		Set<String> annotated = findAnnotatedClasses();
+		assertFalse("No XStream annotations found under " + SOURCE.toAbsolutePath(), annotated.isEmpty());
+		List<String> registered = Arrays.stream(XMLTranslator.ANNOTATED_CLASSES).map(Class::getName)
+				.collect(Collectors.toList());
+		annotated.removeAll(registered);
+		assertTrue("Add to XMLTranslator.ANNOTATED_CLASSES: " + annotated, annotated.isEmpty());
+	}
+
+	@Test
+	public void everyProcessedClassIsAnnotated() throws IOException {
+		Set<String> annotated = findAnnotatedClasses();
+		for (Class<?> registered : XMLTranslator.ANNOTATED_CLASSES) {
+			assertTrue("Remove from XMLTranslator.ANNOTATED_CLASSES: " + registered.getName(),
+					annotated.contains(registered.getName()));
+		}
+	}
+
+	private Set<String> findAnnotatedClasses() throws IOException {
+		try (Stream<Path> files = Files.walk(SOURCE)) {
+			Set<String> annotated = new TreeSet<>();
+			for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".java"))::iterator) {
+				String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+				if (ANNOTATION.matcher(text).find()) {
+					annotated.add(toClassName(file));
+				}
+			}
+			return annotated;
+		}
+	}
+
+	private String toClassName(Path aFile) {
+		String path = SOURCE.relativize(aFile).toString();
+		return path.substring(0, path.length() - ".java".length()).replace(aFile.getFileSystem().getSeparator(), ".");
+	}
+}